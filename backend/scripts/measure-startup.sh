@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Time from JVM launch to the first answered request (GET /categories) and to
+# the first product served (GET /products/1 returning 200, i.e. seed data in
+# place), averaged over RUNS runs. Usage, from backend/:
+#   scripts/measure-startup.sh <java args...>
+# e.g.
+#   scripts/measure-startup.sh -jar target/dscatalog-0.0.1-SNAPSHOT.jar
+#   scripts/measure-startup.sh -XX:SharedArchiveFile=target/app.jsa -Dspring.aot.enabled=true -jar target/dscatalog-0.0.1-SNAPSHOT.jar
+set -u
+RUNS=${RUNS:-5}
+PORT=${PORT:-8089}
+now() { date +%s%3N; }
+total_first=0
+total_product=0
+for run in $(seq 1 "$RUNS"); do
+	start=$(now)
+	java -Dserver.port="$PORT" "$@" >/dev/null 2>&1 &
+	pid=$!
+	first=
+	product=
+	while [ -z "$product" ]; do
+		if [ -z "$first" ] && curl -s -o /dev/null "localhost:$PORT/categories"; then
+			first=$(( $(now) - start ))
+		fi
+		if [ -n "$first" ] && [ "$(curl -s -o /dev/null -w '%{http_code}' "localhost:$PORT/products/1")" = 200 ]; then
+			product=$(( $(now) - start ))
+		fi
+		sleep 0.1
+	done
+	kill "$pid"
+	wait "$pid" 2>/dev/null
+	echo "run $run: first response ${first} ms, first product ${product} ms"
+	total_first=$((total_first + first))
+	total_product=$((total_product + product))
+done
+echo "mean: first response $((total_first / RUNS)) ms, first product $((total_product / RUNS)) ms"
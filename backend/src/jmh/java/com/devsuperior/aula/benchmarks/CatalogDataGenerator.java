@@ -0,0 +1,102 @@
+package com.devsuperior.aula.benchmarks;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.aula.entities.Category;
+import com.devsuperior.aula.entities.Product;
+
+/**
+ * Synthetic catalog for the benchmarks. {@link #seed} grows the database
+ * loaded from seed/catalog.sql up to the requested number of products; the
+ * in-memory variant builds the same shape without a database. Both use a
+ * fixed seed so runs are comparable between releases.
+ */
+public final class CatalogDataGenerator {
+
+	private static final long SEED = 42L;
+	private static final int BATCH = 1000;
+
+	private static final String[] WORDS = { "Smart", "Gamer", "Pro", "Ultra", "Mini", "Max", "Book",
+			"Phone", "Watch", "Camera", "Desk", "Chair", "Monitor", "Keyboard", "Mouse", "Headset" };
+
+	private static final String DESCRIPTION = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, "
+			+ "sed do eiusmod tempor incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, "
+			+ "quis nostrud exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+
+	private CatalogDataGenerator() {
+	}
+
+	/**
+	 * Inserts products until the catalog holds {@code totalProducts} rows and
+	 * links each new product to one of the existing categories.
+	 */
+	public static void seed(JdbcTemplate jdbc, int totalProducts) {
+		long existing = jdbc.queryForObject("SELECT COUNT(*) FROM tb_product", Long.class);
+		long lastId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_product", Long.class);
+		long categories = jdbc.queryForObject("SELECT COUNT(*) FROM tb_category", Long.class);
+		Random random = new Random(SEED);
+		Timestamp now = Timestamp.from(Instant.now());
+
+		List<Object[]> rows = new ArrayList<>(BATCH);
+		for (long i = existing; i < totalProducts; i++) {
+			rows.add(new Object[] { name(random, i), DESCRIPTION, price(random), imgUrl(i),
+					Timestamp.from(Instant.parse("2020-07-14T10:00:00Z").plusSeconds(i)), now });
+			if (rows.size() == BATCH) {
+				insert(jdbc, rows);
+			}
+		}
+		insert(jdbc, rows);
+
+		jdbc.update("INSERT INTO tb_product_category (product_id, category_id) "
+				+ "SELECT id, MOD(id, ?) + 1 FROM tb_product WHERE id > ?", categories, lastId);
+	}
+
+	/**
+	 * Builds {@code size} detached products, each with one or two categories.
+	 */
+	public static List<Product> products(int size) {
+		Random random = new Random(SEED);
+		List<Category> categories = List.of(new Category(1L, "Livros"), new Category(2L, "Eletrônicos"),
+				new Category(3L, "Computadores"));
+
+		List<Product> products = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Product product = new Product((long) i + 1, name(random, i), DESCRIPTION, price(random), imgUrl(i),
+					Instant.parse("2020-07-14T10:00:00Z").plusSeconds(i));
+			product.getCategories().add(categories.get(i % categories.size()));
+			if (i % 4 == 0) {
+				product.getCategories().add(categories.get((i + 1) % categories.size()));
+			}
+			products.add(product);
+		}
+		return products;
+	}
+
+	private static void insert(JdbcTemplate jdbc, List<Object[]> rows) {
+		if (rows.isEmpty()) {
+			return;
+		}
+		jdbc.batchUpdate("INSERT INTO tb_product (name, description, price, img_url, date, updated_at, version) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, 0)", rows);
+		rows.clear();
+	}
+
+	private static String name(Random random, long i) {
+		return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+	}
+
+	private static double price(Random random) {
+		return Math.round(random.nextDouble(10.0, 5000.0) * 100.0) / 100.0;
+	}
+
+	private static String imgUrl(long i) {
+		return "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/"
+				+ (i % 25 + 1) + "-big.jpg";
+	}
+}
@@ -0,0 +1,83 @@
+package com.devsuperior.aula.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsuperior.aula.entities.Category;
+import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+
+/**
+ * Entity to DTO mapping for {@code catalogSize} products per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+	@Param({ "1000" })
+	private int catalogSize;
+
+	private List<Product> products;
+	private List<Category> categories;
+
+	@Setup
+	public void setUp() {
+		products = CatalogDataGenerator.products(catalogSize);
+		categories = products.stream().flatMap(p -> p.getCategories().stream()).toList();
+	}
+
+	@Benchmark
+	public List<ProductDTO> productDto() {
+		List<ProductDTO> result = new ArrayList<>(products.size());
+		for (Product product : products) {
+			result.add(new ProductDTO(product));
+		}
+		return result;
+	}
+
+	@Benchmark
+	public List<ProductDTO> productDtoWithCategories() {
+		List<ProductDTO> result = new ArrayList<>(products.size());
+		for (Product product : products) {
+			result.add(new ProductDTO(product, product.getCategories()));
+		}
+		return result;
+	}
+
+	@Benchmark
+	public List<ProductSummaryDTO> productSummaryDto() {
+		List<ProductSummaryDTO> result = new ArrayList<>(products.size());
+		for (Product product : products) {
+			result.add(new ProductSummaryDTO(product));
+		}
+		return result;
+	}
+
+	@Benchmark
+	public List<CategoryDTO> categoryDto() {
+		List<CategoryDTO> result = new ArrayList<>(categories.size());
+		for (Category category : categories) {
+			result.add(new CategoryDTO(category));
+		}
+		return result;
+	}
+}
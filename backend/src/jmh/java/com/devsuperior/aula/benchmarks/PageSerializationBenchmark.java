@@ -0,0 +1,110 @@
+package com.devsuperior.aula.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Jackson serialization of one page, configured like the mappers Spring Boot
+ * builds for the MVC converters: JSON, and the CBOR and Smile encodings
+ * negotiated with {@code Accept}. Bytes on the wire are printed once per
+ * trial, with gzipped JSON for reference since JSON responses over
+ * {@code server.compression.min-response-size} are compressed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+	@Param({ "1000" })
+	private int catalogSize;
+
+	@Param({ "20", "100" })
+	private int pageSize;
+
+	private ObjectMapper mapper;
+	private ObjectMapper cborMapper;
+	private ObjectMapper smileMapper;
+	private Page<ProductDTO> page;
+	private Page<ProductSummaryDTO> summaryPage;
+
+	@Setup
+	public void setUp() throws IOException {
+		mapper = builder().build();
+		cborMapper = builder().factory(new CBORFactory()).build();
+		smileMapper = builder().factory(new SmileFactory()).build();
+
+		List<Product> products = CatalogDataGenerator.products(Math.min(pageSize, catalogSize));
+		PageRequest pageable = PageRequest.of(0, pageSize);
+		page = new PageImpl<>(products.stream().map(p -> new ProductDTO(p, p.getCategories())).toList(),
+				pageable, catalogSize);
+		summaryPage = new PageImpl<>(products.stream().map(ProductSummaryDTO::new).toList(), pageable,
+				catalogSize);
+
+		byte[] json = productDtoPage();
+		System.out.printf("%nProductDTO page of %d: json=%d B, json+gzip=%d B, cbor=%d B, smile=%d B%n", pageSize,
+				json.length, gzip(json).length, productDtoPageCbor().length, productDtoPageSmile().length);
+	}
+
+	private static Jackson2ObjectMapperBuilder builder() {
+		return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] productDtoPage() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] productDtoPageCbor() throws JsonProcessingException {
+		return cborMapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] productDtoPageSmile() throws JsonProcessingException {
+		return smileMapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] productSummaryPage() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(summaryPage);
+	}
+}
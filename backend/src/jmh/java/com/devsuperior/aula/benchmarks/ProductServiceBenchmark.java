@@ -0,0 +1,110 @@
+package com.devsuperior.aula.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.aula.AulaApplication;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductFilterDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+import com.devsuperior.aula.services.ProductCache;
+import com.devsuperior.aula.services.ProductService;
+
+/**
+ * {@link ProductService} reads against an embedded H2 grown to
+ * {@code catalogSize} products by {@link CatalogDataGenerator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+	@Param({ "1000", "10000" })
+	private int catalogSize;
+
+	@Param({ "20" })
+	private int pageSize;
+
+	private ConfigurableApplicationContext context;
+	private ProductService service;
+	private ProductCache cache;
+	private int pages;
+
+	@Setup
+	public void setUp() {
+		// passed as arguments so they win over application-test.properties
+		context = new SpringApplicationBuilder(AulaApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+						"--spring.jpa.show-sql=false",
+						"--app.seed.mode=startup",
+						"--spring.main.banner-mode=off",
+						"--logging.level.root=WARN");
+		CatalogDataGenerator.seed(context.getBean(JdbcTemplate.class), catalogSize);
+		service = context.getBean(ProductService.class);
+		cache = context.getBean(ProductCache.class);
+		pages = Math.max(1, catalogSize / pageSize);
+
+		// fill the product cache so findByIdCached measures hits only
+		for (long id = 1; id <= catalogSize; id++) {
+			service.findById(id);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<ProductSummaryDTO> findAllPaged() {
+		return service.findAllPaged(PageRequest.of(randomPage(), pageSize));
+	}
+
+	@Benchmark
+	public Page<ProductSummaryDTO> findAllPagedWithCategories() {
+		return service.findAllPagedWithCategories(new ProductFilterDTO(), PageRequest.of(randomPage(), pageSize));
+	}
+
+	@Benchmark
+	public ProductDTO findByIdCached() {
+		return service.findById(randomId());
+	}
+
+	@Benchmark
+	public ProductDTO findByIdUncached() {
+		Long id = randomId();
+		cache.invalidate(id);
+		return service.findById(id);
+	}
+
+	private int randomPage() {
+		return ThreadLocalRandom.current().nextInt(pages);
+	}
+
+	private Long randomId() {
+		return ThreadLocalRandom.current().nextLong(1, catalogSize + 1);
+	}
+}
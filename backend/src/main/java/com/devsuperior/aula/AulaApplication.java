@@ -2,8 +2,12 @@ package com.devsuperior.aula;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.devsuperior.aula.config.CatalogRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(CatalogRuntimeHints.class)
 public class AulaApplication {
 
 	public static void main(String[] args) {
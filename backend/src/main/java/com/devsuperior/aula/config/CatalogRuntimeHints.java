@@ -0,0 +1,28 @@
+package com.devsuperior.aula.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+
+/**
+ * Hints for a native image that AOT processing cannot infer: Hibernate
+ * creates the statement inspector from its class name, the seed script is
+ * read as a resource, and some DTOs are serialized through the ObjectMapper
+ * directly (pre-serialized pages, exports) rather than as controller return
+ * values.
+ */
+public class CatalogRuntimeHints implements RuntimeHintsRegistrar {
+
+	@Override
+	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+		hints.reflection().registerType(SqlStatementCounter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+		hints.resources().registerPattern("seed/*.sql");
+		new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), ProductSummaryDTO.class,
+				ProductDTO.class, CategoryDTO.class);
+	}
+}
@@ -0,0 +1,62 @@
+package com.devsuperior.aula.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Training run for the class data sharing archive built by the fast-startup
+ * profile. With {@code app.cds.training-run=true} the application sends itself
+ * a few representative requests once ready, so the classes used by the first
+ * requests are archived as well, and then exits. The flag is read at runtime
+ * rather than through a condition because AOT processing fixes conditions at
+ * build time.
+ */
+@Component
+public class CdsTrainingRun {
+
+	private static final Logger logger = LoggerFactory.getLogger(CdsTrainingRun.class);
+
+	private static final List<String> REQUESTS = List.of("/products?page=0&size=12&sort=name", "/products/1",
+			"/products/search?q=pc", "/categories", "/categories/1", "/categories/stats");
+
+	@Value("${app.cds.training-run:false}")
+	private boolean enabled;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public void onApplicationReady(ApplicationReadyEvent event) {
+		if (!enabled) {
+			return;
+		}
+		String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port", "8080");
+		HttpClient client = HttpClient.newHttpClient();
+		for (String path : REQUESTS) {
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+			try {
+				client.send(request, HttpResponse.BodyHandlers.discarding());
+			}
+			catch (IOException e) {
+				logger.warn("Training request {} failed: {}", path, e.getMessage());
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		System.exit(SpringApplication.exit(event.getApplicationContext()));
+	}
+}
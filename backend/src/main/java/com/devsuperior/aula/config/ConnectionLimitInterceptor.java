@@ -0,0 +1,88 @@
+package com.devsuperior.aula.config;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.devsuperior.aula.services.exceptions.ServiceUnavailableException;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps the requests in flight, so overload is answered with a fast 503
+ * instead of thousands of requests queueing inside the connection pool until
+ * they time out. By default the cap is the pool's maximum size; a request
+ * that cannot get a permit within {@code app.admission.acquire-timeout} is
+ * rejected. Always on with virtual threads, where Tomcat no longer bounds
+ * concurrency with its worker pool.
+ */
+@Component
+@ConditionalOnExpression("${app.admission.enabled:false} or ${app.threads.virtual.enabled:false}")
+public class ConnectionLimitInterceptor implements AsyncHandlerInterceptor {
+
+	private static final String PERMIT = ConnectionLimitInterceptor.class.getName() + ".PERMIT";
+
+	private final Semaphore permits;
+	private final long timeoutMillis;
+
+	public ConnectionLimitInterceptor(DataSource dataSource,
+			@Value("${app.admission.max-concurrent-requests:0}") int maxConcurrentRequests,
+			@Value("${app.admission.acquire-timeout:2s}") Duration timeout) {
+		this.permits = new Semaphore(maxConcurrentRequests > 0 ? maxConcurrentRequests : poolSize(dataSource), true);
+		this.timeoutMillis = timeout.toMillis();
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+			throws Exception {
+		// async and error dispatches of a request already hold its permit
+		if (request.getDispatcherType() != DispatcherType.REQUEST || request.getAttribute(PERMIT) != null) {
+			return true;
+		}
+		if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+			throw new ServiceUnavailableException("Too many concurrent requests");
+		}
+		request.setAttribute(PERMIT, Boolean.TRUE);
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (request.getAttribute(PERMIT) != null) {
+			request.removeAttribute(PERMIT);
+			permits.release();
+		}
+	}
+
+	public int availablePermits() {
+		return permits.availablePermits();
+	}
+
+	/**
+	 * Unwraps proxies such as the replica router, which resolves to the primary
+	 * pool outside a transaction.
+	 */
+	private static int poolSize(DataSource dataSource) {
+		try {
+			if (dataSource.isWrapperFor(HikariDataSource.class)) {
+				return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+			}
+		}
+		catch (SQLException e) {
+			// fall through to the Hikari default
+		}
+		return 10;
+	}
+}
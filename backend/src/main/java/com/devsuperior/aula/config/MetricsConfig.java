@@ -0,0 +1,24 @@
+package com.devsuperior.aula.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricsConfig {
+
+	/**
+	 * Backs the class-level {@code @Timed} on the services.
+	 */
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry registry) {
+		return new TimedAspect(registry);
+	}
+
+	@Bean
+	public SqlCountFilter sqlCountFilter(MeterRegistry registry) {
+		return new SqlCountFilter(registry);
+	}
+}
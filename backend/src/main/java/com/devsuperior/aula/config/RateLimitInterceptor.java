@@ -0,0 +1,74 @@
+package com.devsuperior.aula.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.devsuperior.aula.services.exceptions.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-client {@link TokenBucket}, checked before any resource method runs so
+ * a rejected request costs no database work. Clients are told apart by
+ * remote address, or by the {@code app.admission.rate-limit.client-header}
+ * header when one is configured. The header is not authenticated here, and a
+ * client choosing its own key gets a fresh bucket per key, so only configure
+ * it behind a gateway that checks it. Buckets idle long enough to
+ * be full again are evicted, and at most {@code max-clients} are kept.
+ */
+@Component
+@ConditionalOnProperty(name = "app.admission.rate-limit.enabled", havingValue = "true")
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+	private final Cache<String, TokenBucket> buckets;
+	private final double permitsPerSecond;
+	private final int burst;
+	private final String clientHeader;
+
+	public RateLimitInterceptor(@Value("${app.admission.rate-limit.requests-per-second:20}") double permitsPerSecond,
+			@Value("${app.admission.rate-limit.burst:40}") int burst,
+			@Value("${app.admission.rate-limit.client-header:}") String clientHeader,
+			@Value("${app.admission.rate-limit.max-clients:100000}") long maxClients) {
+		this.permitsPerSecond = permitsPerSecond;
+		this.burst = burst;
+		this.clientHeader = clientHeader;
+		long refill = new TokenBucket(permitsPerSecond, burst, 0L).refillNanos();
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxClients)
+				.expireAfterAccess(Duration.ofNanos(Math.max(refill, TimeUnit.SECONDS.toNanos(1))))
+				.build();
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (request.getDispatcherType() != DispatcherType.REQUEST) {
+			return true;
+		}
+		long now = System.nanoTime();
+		TokenBucket bucket = buckets.get(clientKey(request), key -> new TokenBucket(permitsPerSecond, burst, now));
+		long waitNanos = bucket.tryAcquire(now);
+		if (waitNanos > 0) {
+			long retryAfter = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+			throw new TooManyRequestsException("Rate limit exceeded", retryAfter);
+		}
+		return true;
+	}
+
+	public long clients() {
+		return buckets.estimatedSize();
+	}
+
+	private String clientKey(HttpServletRequest request) {
+		String key = clientHeader.isBlank() ? null : request.getHeader(clientHeader);
+		return key != null && !key.isBlank() ? "key:" + key : "addr:" + request.getRemoteAddr();
+	}
+}
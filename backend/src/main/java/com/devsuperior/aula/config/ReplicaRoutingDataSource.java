@@ -0,0 +1,115 @@
+package com.devsuperior.aula.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections taken inside {@code readOnly} transactions to the replica
+ * and everything else (writes, and reads outside a transaction such as the
+ * cache loaders) to the primary. Must sit behind a
+ * {@code LazyConnectionDataSourceProxy}: the read-only flag is only set after
+ * the transaction manager has begun the transaction.
+ * <p>
+ * Two fallbacks keep replica lag and outages invisible to clients: for
+ * {@code max-lag} after any write commits, reads stay on the primary (so
+ * caches dropped by that write are not refilled with stale rows), and a
+ * replica that fails to hand out a connection is skipped for
+ * {@code retry-after}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	enum Route {
+		PRIMARY, REPLICA
+	}
+
+	private final DataSource primary;
+	private final DataSource replica;
+	private final long maxLagMillis;
+	private final long retryAfterMillis;
+	private final Clock clock;
+	private final TransactionSynchronization writeCommitted = new TransactionSynchronization() {
+		@Override
+		public void afterCommit() {
+			lastWriteMillis = clock.millis();
+		}
+	};
+
+	private volatile long lastWriteMillis = Long.MIN_VALUE;
+	private volatile long replicaDownUntil = Long.MIN_VALUE;
+
+	public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, Duration retryAfter) {
+		this(primary, replica, maxLag, retryAfter, Clock.systemUTC());
+	}
+
+	ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, Duration retryAfter,
+			Clock clock) {
+		this.primary = primary;
+		this.replica = replica;
+		this.maxLagMillis = maxLag.toMillis();
+		this.retryAfterMillis = retryAfter.toMillis();
+		this.clock = clock;
+		setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (TransactionSynchronizationManager.isActualTransactionActive()
+					&& TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(writeCommitted);
+			}
+			return Route.PRIMARY;
+		}
+		long now = clock.millis();
+		if (now < replicaDownUntil || now - maxLagMillis < lastWriteMillis) {
+			return Route.PRIMARY;
+		}
+		return Route.REPLICA;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (determineCurrentLookupKey() == Route.REPLICA) {
+			try {
+				return replica.getConnection();
+			}
+			catch (SQLException e) {
+				replicaUnavailable(e);
+			}
+		}
+		return primary.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		if (determineCurrentLookupKey() == Route.REPLICA) {
+			try {
+				return replica.getConnection(username, password);
+			}
+			catch (SQLException e) {
+				replicaUnavailable(e);
+			}
+		}
+		return primary.getConnection(username, password);
+	}
+
+	private void replicaUnavailable(SQLException e) {
+		replicaDownUntil = clock.millis() + retryAfterMillis;
+		logger.warn("Replica unavailable, reading from primary for {} ms: {}", retryAfterMillis, e.getMessage());
+	}
+}
@@ -0,0 +1,103 @@
+package com.devsuperior.aula.config;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.aula.services.events.CategoryChangedEvent;
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+
+/**
+ * Loads the demo catalog from {@code app.seed.script}. Hibernate used to run
+ * it as import.sql while building the EntityManagerFactory, which put it on
+ * the startup path of every instance. {@code app.seed.mode} is one of:
+ * <ul>
+ * <li>{@code startup}: once the context is refreshed, before the in-memory
+ * views (category snapshot, search index, statistics) are built;</li>
+ * <li>{@code background}: on its own thread once the application is ready,
+ * then change events are published so those views pick the rows up;</li>
+ * <li>{@code none}.</li>
+ * </ul>
+ * The script is skipped when the catalog already has categories.
+ */
+@Component
+public class SeedDataLoader {
+
+	private static final Logger logger = LoggerFactory.getLogger(SeedDataLoader.class);
+
+	public enum Mode {
+		STARTUP,
+		BACKGROUND,
+		NONE;
+	}
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	private final Mode mode;
+	private final Resource script;
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	public SeedDataLoader(@Value("${app.seed.mode:startup}") Mode mode,
+			@Value("${app.seed.script:classpath:seed/catalog.sql}") Resource script) {
+		this.mode = mode;
+		this.script = script;
+	}
+
+	@EventListener(ContextRefreshedEvent.class)
+	public void onContextRefreshed() {
+		if (mode == Mode.STARTUP && started.compareAndSet(false, true)) {
+			seed();
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (mode == Mode.BACKGROUND && started.compareAndSet(false, true)) {
+			new CustomizableThreadFactory("catalog-seed-").newThread(() -> {
+				if (seed()) {
+					publishCreated();
+				}
+			}).start();
+		}
+	}
+
+	private boolean seed() {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		if (jdbc.queryForObject("SELECT COUNT(*) FROM tb_category", Long.class) > 0) {
+			return false;
+		}
+		long start = System.currentTimeMillis();
+		DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(script), dataSource);
+		logger.info("Seed data loaded from {} in {} ms", script.getFilename(), System.currentTimeMillis() - start);
+		return true;
+	}
+
+	private void publishCreated() {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		List<Long> categoryIds = jdbc.queryForList("SELECT id FROM tb_category", Long.class);
+		List<Long> productIds = jdbc.queryForList("SELECT id FROM tb_product", Long.class);
+		publisher.publishEvent(new CategoryChangedEvent(ChangeType.CREATED, categoryIds));
+		publisher.publishEvent(new ProductChangedEvent(ChangeType.CREATED, productIds));
+	}
+}
@@ -0,0 +1,50 @@
+package com.devsuperior.aula.config;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each request ran, as the
+ * {@code http.server.requests.sql} histogram tagged like
+ * {@code http.server.requests} (method, uri pattern, status).
+ */
+public class SqlCountFilter extends OncePerRequestFilter {
+
+	private final MeterRegistry registry;
+
+	public SqlCountFilter(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		SqlStatementCounter.reset();
+		try {
+			chain.doFilter(request, response);
+		}
+		finally {
+			if (!request.isAsyncStarted()) {
+				Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+				DistributionSummary.builder("http.server.requests.sql")
+						.description("SQL statements executed per request")
+						.baseUnit("statements")
+						.tag("method", request.getMethod())
+						.tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+						.tag("status", Integer.toString(response.getStatus()))
+						.publishPercentileHistogram()
+						.register(registry)
+						.record(SqlStatementCounter.current());
+			}
+		}
+	}
+}
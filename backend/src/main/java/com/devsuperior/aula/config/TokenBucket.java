@@ -0,0 +1,49 @@
+package com.devsuperior.aula.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of {@code capacity} tokens refilled at {@code permitsPerSecond},
+ * kept as a single "theoretical arrival time" (GCRA): the instant at which
+ * the bucket would be full again. Taking a token is one compare-and-set, so
+ * buckets can be shared by request threads without locking.
+ */
+public final class TokenBucket {
+
+	private final long intervalNanos;
+	private final long burstNanos;
+	private final AtomicLong fullAt;
+
+	public TokenBucket(double permitsPerSecond, int capacity, long nowNanos) {
+		this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+		this.burstNanos = intervalNanos * capacity;
+		this.fullAt = new AtomicLong(nowNanos);
+	}
+
+	/**
+	 * Takes a token and returns 0, or returns how many nanoseconds to wait
+	 * until one is available without taking it.
+	 */
+	public long tryAcquire(long nowNanos) {
+		while (true) {
+			long current = fullAt.get();
+			long next = Math.max(current, nowNanos) + intervalNanos;
+			long wait = next - nowNanos - burstNanos;
+			if (wait > 0) {
+				return wait;
+			}
+			if (fullAt.compareAndSet(current, next)) {
+				return 0L;
+			}
+		}
+	}
+
+	/**
+	 * Time an idle bucket takes to refill completely; after that it is
+	 * indistinguishable from a new one.
+	 */
+	public long refillNanos() {
+		return burstNanos;
+	}
+}
@@ -0,0 +1,41 @@
+package com.devsuperior.aula.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	@Autowired
+	private ObjectProvider<RateLimitInterceptor> rateLimitInterceptor;
+
+	@Autowired
+	private ObjectProvider<ConnectionLimitInterceptor> connectionLimitInterceptor;
+
+	/**
+	 * Lets request parameters bind to enums regardless of case
+	 * ({@code ?format=csv}).
+	 */
+	@Override
+	public void addFormatters(FormatterRegistry registry) {
+		ApplicationConversionService.addApplicationConverters(registry);
+	}
+
+	/**
+	 * The rate limit runs first, so a rejected client never takes a permit.
+	 * Change streams and images are exempt from the cap: they stay open for
+	 * minutes, or for a slow download, without using a connection.
+	 */
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		rateLimitInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+				.addPathPatterns("/products/**", "/categories/**"));
+		connectionLimitInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+				.excludePathPatterns("/changes", "/products/*/image"));
+	}
+}
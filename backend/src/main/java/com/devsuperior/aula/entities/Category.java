@@ -11,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "tb_category")
@@ -28,6 +29,9 @@ public class Category implements Serializable{
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant updatedAt;
 	
+	@Version
+	private Long version;
+	
 	public Category() {
 	}
 
@@ -64,6 +68,10 @@ public class Category implements Serializable{
 	public Instant getUpdatedAt() {
 		return updatedAt;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
 	
 	@PrePersist
 	public void prePersist() {
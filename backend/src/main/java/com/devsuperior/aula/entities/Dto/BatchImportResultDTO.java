@@ -0,0 +1,55 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.devsuperior.aula.entities.Dto.BatchItemResultDTO.Status;
+
+public class BatchImportResultDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Integer total = 0;
+	private Integer created = 0;
+	private Integer rejected = 0;
+	private Integer failed = 0;
+	
+	private List<BatchItemResultDTO> items = new ArrayList<>();
+	
+	public BatchImportResultDTO() {
+	}
+
+	public void add(BatchItemResultDTO item) {
+		items.add(item);
+		total++;
+		if (item.getStatus() == Status.CREATED) {
+			created++;
+		}
+		else if (item.getStatus() == Status.REJECTED) {
+			rejected++;
+		}
+		else {
+			failed++;
+		}
+	}
+
+	public Integer getTotal() {
+		return total;
+	}
+
+	public Integer getCreated() {
+		return created;
+	}
+
+	public Integer getRejected() {
+		return rejected;
+	}
+
+	public Integer getFailed() {
+		return failed;
+	}
+
+	public List<BatchItemResultDTO> getItems() {
+		return items;
+	}
+}
@@ -0,0 +1,44 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+
+public class BatchItemResultDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public enum Status {
+		CREATED,
+		REJECTED,
+		FAILED;
+	}
+
+	private Integer index;
+	private Long id;
+	private Status status;
+	private String message;
+	
+	public BatchItemResultDTO() {
+	}
+
+	public BatchItemResultDTO(Integer index, Long id, Status status, String message) {
+		this.index = index;
+		this.id = id;
+		this.status = status;
+		this.message = message;
+	}
+
+	public Integer getIndex() {
+		return index;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,28 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkDeleteResultDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private List<Long> deleted = new ArrayList<>();
+	private List<Long> missing = new ArrayList<>();
+	private List<Long> failed = new ArrayList<>();
+	
+	public BulkDeleteResultDTO() {
+	}
+
+	public List<Long> getDeleted() {
+		return deleted;
+	}
+
+	public List<Long> getMissing() {
+		return missing;
+	}
+
+	public List<Long> getFailed() {
+		return failed;
+	}
+}
@@ -0,0 +1,46 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public class CacheStatsDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long size;
+	private Long hitCount;
+	private Long missCount;
+	private Long evictionCount;
+	private Double hitRate;
+	
+	public CacheStatsDTO() {
+	}
+
+	public CacheStatsDTO(long size, CacheStats stats) {
+		this.size = size;
+		this.hitCount = stats.hitCount();
+		this.missCount = stats.missCount();
+		this.evictionCount = stats.evictionCount();
+		this.hitRate = stats.hitRate();
+	}
+
+	public Long getSize() {
+		return size;
+	}
+
+	public Long getHitCount() {
+		return hitCount;
+	}
+
+	public Long getMissCount() {
+		return missCount;
+	}
+
+	public Long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public Double getHitRate() {
+		return hitRate;
+	}
+}
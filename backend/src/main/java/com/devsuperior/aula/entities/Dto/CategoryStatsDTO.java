@@ -0,0 +1,51 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+
+public class CategoryStatsDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long categoryId;
+	private String categoryName;
+	private Long productCount;
+	private Double minPrice;
+	private Double avgPrice;
+	private Double maxPrice;
+	
+	public CategoryStatsDTO() {
+	}
+
+	public CategoryStatsDTO(Long categoryId, String categoryName, Long productCount, Double minPrice,
+			Double avgPrice, Double maxPrice) {
+		this.categoryId = categoryId;
+		this.categoryName = categoryName;
+		this.productCount = productCount;
+		this.minPrice = minPrice;
+		this.avgPrice = avgPrice;
+		this.maxPrice = maxPrice;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public String getCategoryName() {
+		return categoryName;
+	}
+
+	public Long getProductCount() {
+		return productCount;
+	}
+
+	public Double getMinPrice() {
+		return minPrice;
+	}
+
+	public Double getAvgPrice() {
+		return avgPrice;
+	}
+
+	public Double getMaxPrice() {
+		return maxPrice;
+	}
+}
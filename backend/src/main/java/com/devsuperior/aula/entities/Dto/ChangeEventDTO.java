@@ -0,0 +1,53 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+import com.devsuperior.aula.services.events.ChangeType;
+
+public class ChangeEventDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public enum Entity {
+		PRODUCT,
+		CATEGORY;
+	}
+
+	private long sequence;
+	private Entity entity;
+	private ChangeType type;
+	private List<Long> ids;
+	private Instant timestamp;
+	
+	public ChangeEventDTO() {
+	}
+
+	public ChangeEventDTO(long sequence, Entity entity, ChangeType type, List<Long> ids, Instant timestamp) {
+		this.sequence = sequence;
+		this.entity = entity;
+		this.type = type;
+		this.ids = ids;
+		this.timestamp = timestamp;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public Entity getEntity() {
+		return entity;
+	}
+
+	public ChangeType getType() {
+		return type;
+	}
+
+	public List<Long> getIds() {
+		return ids;
+	}
+
+	public Instant getTimestamp() {
+		return timestamp;
+	}
+}
@@ -0,0 +1,37 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class CursorPageDTO<T> implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private List<T> content;
+	private Integer size;
+	private String nextCursor;
+	
+	public CursorPageDTO() {
+	}
+
+	public CursorPageDTO(List<T> content, Integer size, String nextCursor) {
+		this.content = content;
+		this.size = size;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public Integer getSize() {
+		return size;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean isLast() {
+		return nextCursor == null;
+	}
+}
@@ -0,0 +1,48 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of {@code GET /products/changes}. While {@code nextCursor} is set
+ * there are more changes; after the last page, {@code until} is the
+ * {@code since} of the next sync.
+ */
+public class ProductChangesDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private List<ProductDTO> updated = new ArrayList<>();
+	private List<ProductTombstoneDTO> deleted = new ArrayList<>();
+	private Instant until;
+	private String nextCursor;
+	
+	public ProductChangesDTO() {
+	}
+
+	public ProductChangesDTO(Instant until, String nextCursor) {
+		this.until = until;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<ProductDTO> getUpdated() {
+		return updated;
+	}
+
+	public List<ProductTombstoneDTO> getDeleted() {
+		return deleted;
+	}
+
+	public Instant getUntil() {
+		return until;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean isLast() {
+		return nextCursor == null;
+	}
+}
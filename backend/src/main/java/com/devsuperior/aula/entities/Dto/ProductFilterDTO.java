@@ -0,0 +1,58 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+
+public class ProductFilterDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long categoryId;
+	private Double minPrice;
+	private Double maxPrice;
+	private String name;
+	
+	public ProductFilterDTO() {
+	}
+
+	public ProductFilterDTO(Long categoryId, Double minPrice, Double maxPrice, String name) {
+		this.categoryId = categoryId;
+		this.minPrice = minPrice;
+		this.maxPrice = maxPrice;
+		this.name = name;
+	}
+
+	public Long getCategoryId() {
+		return categoryId;
+	}
+
+	public void setCategoryId(Long categoryId) {
+		this.categoryId = categoryId;
+	}
+
+	public Double getMinPrice() {
+		return minPrice;
+	}
+
+	public void setMinPrice(Double minPrice) {
+		this.minPrice = minPrice;
+	}
+
+	public Double getMaxPrice() {
+		return maxPrice;
+	}
+
+	public void setMaxPrice(Double maxPrice) {
+		this.maxPrice = maxPrice;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public boolean isEmpty() {
+		return categoryId == null && minPrice == null && maxPrice == null && (name == null || name.isBlank());
+	}
+}
@@ -0,0 +1,77 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.devsuperior.aula.entities.Product;
+
+/**
+ * Row of a product listing. Selected directly by the repository, so the
+ * description column is neither read nor serialized; the full
+ * {@link ProductDTO} is only returned by GET /products/{id}.
+ */
+public class ProductSummaryDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private String name;
+	private Double price;
+	private String imgUrl;
+	
+	private List<CategoryDTO> categories = new ArrayList<>();
+	
+	public ProductSummaryDTO() {
+	}
+
+	public ProductSummaryDTO(Long id, String name, Double price, String imgUrl) {
+		this.id = id;
+		this.name = name;
+		this.price = price;
+		this.imgUrl = imgUrl;
+	}
+	
+	public ProductSummaryDTO(Product entity) {
+		this(entity.getId(), entity.getName(), entity.getPrice(), entity.getImgUrl());
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public void setPrice(Double price) {
+		this.price = price;
+	}
+
+	public String getImgUrl() {
+		return imgUrl;
+	}
+
+	public void setImgUrl(String imgUrl) {
+		this.imgUrl = imgUrl;
+	}
+
+	public List<CategoryDTO> getCategories() {
+		return categories;
+	}
+
+	public void setCategories(List<CategoryDTO> categories) {
+		this.categories = categories;
+	}
+}
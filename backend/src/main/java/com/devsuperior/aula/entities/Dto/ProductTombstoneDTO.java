@@ -0,0 +1,33 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.devsuperior.aula.entities.ProductTombstone;
+
+public class ProductTombstoneDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private Instant deletedAt;
+	
+	public ProductTombstoneDTO() {
+	}
+
+	public ProductTombstoneDTO(Long id, Instant deletedAt) {
+		this.id = id;
+		this.deletedAt = deletedAt;
+	}
+	
+	public ProductTombstoneDTO(ProductTombstone entity) {
+		this(entity.getProductId(), entity.getDeletedAt());
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Instant getDeletedAt() {
+		return deletedAt;
+	}
+}
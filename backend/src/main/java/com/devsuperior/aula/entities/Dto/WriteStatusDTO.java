@@ -0,0 +1,44 @@
+package com.devsuperior.aula.entities.Dto;
+
+import java.io.Serializable;
+
+public class WriteStatusDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public enum Status {
+		QUEUED,
+		COMPLETED,
+		FAILED;
+	}
+
+	private String trackingId;
+	private Status status;
+	private Long productId;
+	private String message;
+	
+	public WriteStatusDTO() {
+	}
+
+	public WriteStatusDTO(String trackingId, Status status, Long productId, String message) {
+		this.trackingId = trackingId;
+		this.status = status;
+		this.productId = productId;
+		this.message = message;
+	}
+
+	public String getTrackingId() {
+		return trackingId;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
@@ -10,13 +10,20 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "tb_product")
+@Table(name = "tb_product", indexes = {
+	@Index(name = "idx_product_price", columnList = "price"),
+	@Index(name = "idx_product_updated_at", columnList = "updatedAt, id")
+})
 public class Product {
 
 	@Id
@@ -32,10 +39,17 @@ public class Product {
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant date;
 	
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant updatedAt;
+	
+	@Version
+	private Long version;
+	
 	@ManyToMany
 	@JoinTable(name = "tb_product_category",
 		joinColumns = @JoinColumn(name = "product_id"),
-		inverseJoinColumns = @JoinColumn(name = "category_id"))	
+		inverseJoinColumns = @JoinColumn(name = "category_id"),
+		indexes = @Index(name = "idx_product_category_category", columnList = "category_id"))
 	Set<Category> categories = new HashSet<>();
 	
 	public Product() {
@@ -98,9 +112,23 @@ public class Product {
 		this.date = date;
 	}
 
+	public Instant getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
 	public Set<Category> getCategories() {
 		return categories;
 	}
+	
+	@PrePersist
+	@PreUpdate
+	public void touch() {
+		updatedAt = Instant.now();
+	}
 
 	@Override
 	public int hashCode() {
@@ -0,0 +1,58 @@
+package com.devsuperior.aula.entities;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Marks a deleted product, so incremental sync can report the delete.
+ * Purged after {@code app.sync.tombstone-retention}.
+ */
+@Entity
+@Table(name = "tb_product_tombstone", indexes = @Index(name = "idx_product_tombstone_deleted_at", columnList = "deletedAt, productId"))
+public class ProductTombstone {
+
+	@Id
+	private Long productId;
+	
+	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+	private Instant deletedAt;
+	
+	public ProductTombstone() {
+	}
+
+	public ProductTombstone(Long productId, Instant deletedAt) {
+		this.productId = productId;
+		this.deletedAt = deletedAt;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public Instant getDeletedAt() {
+		return deletedAt;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(productId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ProductTombstone other = (ProductTombstone) obj;
+		return Objects.equals(productId, other.productId);
+	}
+}
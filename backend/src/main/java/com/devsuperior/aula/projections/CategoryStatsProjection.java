@@ -0,0 +1,10 @@
+package com.devsuperior.aula.projections;
+
+public interface CategoryStatsProjection {
+
+	Long getCategoryId();
+	Long getProductCount();
+	Double getMinPrice();
+	Double getMaxPrice();
+	Double getPriceSum();
+}
@@ -0,0 +1,7 @@
+package com.devsuperior.aula.projections;
+
+public interface ProductCategoryProjection {
+
+	Long getProductId();
+	Long getCategoryId();
+}
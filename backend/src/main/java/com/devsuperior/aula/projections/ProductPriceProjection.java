@@ -0,0 +1,8 @@
+package com.devsuperior.aula.projections;
+
+public interface ProductPriceProjection {
+
+	Long getProductId();
+	Double getPrice();
+	Long getCategoryId();
+}
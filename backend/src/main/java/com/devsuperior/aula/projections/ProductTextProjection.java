@@ -0,0 +1,8 @@
+package com.devsuperior.aula.projections;
+
+public interface ProductTextProjection {
+
+	Long getId();
+	String getName();
+	String getDescription();
+}
@@ -0,0 +1,9 @@
+package com.devsuperior.aula.projections;
+
+import java.time.Instant;
+
+public interface ProductVersionProjection {
+
+	Long getVersion();
+	Instant getUpdatedAt();
+}
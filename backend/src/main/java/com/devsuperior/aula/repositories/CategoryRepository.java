@@ -1,9 +1,33 @@
 package com.devsuperior.aula.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.devsuperior.aula.entities.Category;
+import com.devsuperior.aula.projections.CategoryStatsProjection;
 
 public interface CategoryRepository extends JpaRepository<Category, Long>{
 
+	@Query("SELECT obj.id FROM Category obj WHERE obj.id IN :ids")
+	List<Long> findExistingIds(Collection<Long> ids);
+
+	@Query(nativeQuery = true, value = "SELECT DISTINCT category_id FROM tb_product_category WHERE category_id IN :ids")
+	List<Long> findReferencedIds(Collection<Long> ids);
+
+	@Query(nativeQuery = true, value = """
+			SELECT pc.category_id AS categoryId, COUNT(*) AS productCount, MIN(p.price) AS minPrice,
+				MAX(p.price) AS maxPrice, SUM(p.price) AS priceSum
+			FROM tb_product_category pc
+			INNER JOIN tb_product p ON p.id = pc.product_id
+			GROUP BY pc.category_id
+			""")
+	List<CategoryStatsProjection> aggregateProductStats();
+
+	@Modifying
+	@Query("DELETE FROM Category obj WHERE obj.id IN :ids")
+	int deleteAllByIdIn(Collection<Long> ids);
 }
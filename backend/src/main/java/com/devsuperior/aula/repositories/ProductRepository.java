@@ -1,11 +1,98 @@
 package com.devsuperior.aula.repositories;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+import com.devsuperior.aula.projections.ProductCategoryProjection;
+import com.devsuperior.aula.projections.ProductPriceProjection;
+import com.devsuperior.aula.projections.ProductTextProjection;
+import com.devsuperior.aula.projections.ProductVersionProjection;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+	@Query(value = "SELECT " + ProductRepositoryImpl.SUMMARY + " FROM Product obj",
+			countQuery = "SELECT COUNT(obj) FROM Product obj")
+	Page<ProductSummaryDTO> findAllSummaries(Pageable pageable);
+
+	@Query("SELECT " + ProductRepositoryImpl.SUMMARY + " FROM Product obj WHERE obj.id IN :ids")
+	List<ProductSummaryDTO> findSummaries(List<Long> ids);
+
+	@Query("SELECT " + ProductRepositoryImpl.SUMMARY + " FROM Product obj WHERE obj.id > :after ORDER BY obj.id")
+	Slice<ProductSummaryDTO> findNextPage(Long after, Pageable pageable);
+
+	@EntityGraph(attributePaths = "categories")
+	Optional<Product> findWithCategoriesById(Long id);
+
+	@Query("SELECT obj.id FROM Product obj WHERE obj.id IN :ids")
+	List<Long> findExistingIds(Collection<Long> ids);
+
+	/**
+	 * Hibernate deletes the rows of the categories join table in the same
+	 * bulk operation, before the products.
+	 */
+	@Modifying
+	@Query("DELETE FROM Product obj WHERE obj.id IN :ids")
+	int deleteAllByIdIn(Collection<Long> ids);
+
+	/**
+	 * Keyset over {@code (updatedAt, id)}, served by idx_product_updated_at.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+	@Query("""
+			SELECT obj FROM Product obj
+			WHERE (obj.updatedAt > :after OR (obj.updatedAt = :after AND obj.id > :afterId))
+			AND obj.updatedAt <= :until
+			ORDER BY obj.updatedAt, obj.id
+			""")
+	List<Product> findUpdatedAfter(Instant after, Long afterId, Instant until, Pageable pageable);
+
+	@Query("SELECT obj.version AS version, obj.updatedAt AS updatedAt FROM Product obj WHERE obj.id = :id")
+	Optional<ProductVersionProjection> findVersionById(Long id);
+
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("SELECT obj FROM Product obj ORDER BY obj.id")
+	Stream<Product> streamAll();
+
+	@Query(nativeQuery = true, value = """
+			SELECT product_id AS productId, category_id AS categoryId
+			FROM tb_product_category
+			WHERE product_id IN :ids
+			""")
+	List<ProductCategoryProjection> findCategoryLinks(List<Long> ids);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT obj.id AS productId, obj.price AS price, cat.id AS categoryId FROM Product obj LEFT JOIN obj.categories cat")
+	Stream<ProductPriceProjection> streamPriceCategories();
+
+	@Query("SELECT obj.id AS productId, obj.price AS price, cat.id AS categoryId FROM Product obj LEFT JOIN obj.categories cat WHERE obj.id IN :ids")
+	List<ProductPriceProjection> findPriceCategories(Collection<Long> ids);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT obj.id AS id, obj.name AS name, obj.description AS description FROM Product obj")
+	Stream<ProductTextProjection> streamSearchText();
 
+	@Query("SELECT obj.id AS id, obj.name AS name, obj.description AS description FROM Product obj WHERE obj.id IN :ids")
+	List<ProductTextProjection> findSearchText(List<Long> ids);
 }
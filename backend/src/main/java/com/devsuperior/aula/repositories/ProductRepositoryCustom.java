@@ -0,0 +1,12 @@
+package com.devsuperior.aula.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.devsuperior.aula.entities.Dto.ProductFilterDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+
+public interface ProductRepositoryCustom {
+
+	Page<ProductSummaryDTO> findFiltered(ProductFilterDTO filter, Pageable pageable);
+}
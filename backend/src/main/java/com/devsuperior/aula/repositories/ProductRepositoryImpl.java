@@ -0,0 +1,88 @@
+package com.devsuperior.aula.repositories;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.devsuperior.aula.entities.Dto.ProductFilterDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Builds the filtered listing query from the filters actually present, so
+ * each combination reaches the database as a plain predicate the indexes on
+ * {@code tb_product.price} and {@code tb_product_category.category_id} can
+ * serve. The category filter is an EXISTS subquery rather than a join, so
+ * a product is never returned twice and the count needs no DISTINCT.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+	static final String SUMMARY =
+			"new com.devsuperior.aula.entities.Dto.ProductSummaryDTO(obj.id, obj.name, obj.price, obj.imgUrl)";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Page<ProductSummaryDTO> findFiltered(ProductFilterDTO filter, Pageable pageable) {
+		Map<String, Object> params = new HashMap<>();
+		String where = where(filter, params);
+
+		String jpql = QueryUtils.applySorting("SELECT " + SUMMARY + " FROM Product obj" + where, pageable.getSort(), "obj");
+		TypedQuery<ProductSummaryDTO> query = entityManager.createQuery(jpql, ProductSummaryDTO.class);
+		params.forEach(query::setParameter);
+		if (pageable.isPaged()) {
+			query.setFirstResult((int) pageable.getOffset());
+			query.setMaxResults(pageable.getPageSize());
+		}
+		List<ProductSummaryDTO> content = query.getResultList();
+
+		return PageableExecutionUtils.getPage(content, pageable, () -> {
+			TypedQuery<Long> count = entityManager.createQuery("SELECT COUNT(obj) FROM Product obj" + where, Long.class);
+			params.forEach(count::setParameter);
+			return count.getSingleResult();
+		});
+	}
+
+	private static String where(ProductFilterDTO filter, Map<String, Object> params) {
+		StringBuilder sb = new StringBuilder();
+		if (filter.getCategoryId() != null) {
+			and(sb).append("EXISTS (SELECT 1 FROM obj.categories cat WHERE cat.id = :categoryId)");
+			params.put("categoryId", filter.getCategoryId());
+		}
+		if (filter.getMinPrice() != null) {
+			and(sb).append("obj.price >= :minPrice");
+			params.put("minPrice", filter.getMinPrice());
+		}
+		if (filter.getMaxPrice() != null) {
+			and(sb).append("obj.price <= :maxPrice");
+			params.put("maxPrice", filter.getMaxPrice());
+		}
+		if (filter.getName() != null && !filter.getName().isBlank()) {
+			and(sb).append("LOWER(obj.name) LIKE :name ESCAPE '\\'");
+			params.put("name", "%" + escapeLike(filter.getName().trim().toLowerCase(Locale.ROOT)) + "%");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * The name is matched literally: {@code %} and {@code _} typed by the user
+	 * are not wildcards.
+	 */
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	private static StringBuilder and(StringBuilder sb) {
+		return sb.append(sb.isEmpty() ? " WHERE " : " AND ");
+	}
+}
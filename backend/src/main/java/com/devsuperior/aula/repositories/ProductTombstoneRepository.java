@@ -0,0 +1,39 @@
+package com.devsuperior.aula.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.devsuperior.aula.entities.ProductTombstone;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+	@Query("""
+			SELECT obj FROM ProductTombstone obj
+			WHERE (obj.deletedAt > :after OR (obj.deletedAt = :after AND obj.productId > :afterId))
+			AND obj.deletedAt <= :until
+			ORDER BY obj.deletedAt, obj.productId
+			""")
+	List<ProductTombstone> findDeletedAfter(Instant after, Long afterId, Instant until, Pageable pageable);
+
+	/**
+	 * One statement for all ids; must run before the products are deleted.
+	 */
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			INSERT INTO tb_product_tombstone (product_id, deleted_at)
+			SELECT id, :deletedAt FROM tb_product WHERE id IN :ids
+			""")
+	int insertForProducts(Collection<Long> ids, Instant deletedAt);
+
+	@Modifying
+	@Query("DELETE FROM ProductTombstone obj WHERE obj.deletedAt < :before")
+	int deleteAllDeletedBefore(Instant before);
+}
@@ -1,10 +1,13 @@
 package com.devsuperior.aula.resources;
 
 import java.net.URI;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,28 +15,58 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.aula.entities.Dto.BulkDeleteResultDTO;
 import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.CategoryStatsDTO;
+import com.devsuperior.aula.entities.Dto.CursorPageDTO;
 import com.devsuperior.aula.services.CategoryService;
+import com.devsuperior.aula.services.ResourceVersion;
 
 @RestController
 @RequestMapping(value = "/categories")
 public class CategoryResource {
 	
+	@Value("${spring.data.web.pageable.max-page-size:2000}")
+	private int maxPageSize;
+	
 	@Autowired
 	private CategoryService service;
 	
 	@GetMapping
-	public ResponseEntity<Page<CategoryDTO>> findAll(Pageable pageable){
+	public ResponseEntity<Page<CategoryDTO>> findAll(Pageable pageable, WebRequest request){
+		ResourceVersion version = service.findAllVersion();
+		if (request.checkNotModified(version.getEtag(), version.getLastModified().toEpochMilli())) {
+			return null;
+		}
 		Page<CategoryDTO> list = service.findAll(pageable);
 		return ResponseEntity.ok().body(list);
 	 }
 	
+	@GetMapping(params = "after")
+	public ResponseEntity<CursorPageDTO<CategoryDTO>> findAllAfter(@RequestParam String after,
+			@RequestParam(defaultValue = "20") Integer size){
+		CursorPageDTO<CategoryDTO> page = service.findAllAfter(after, Math.min(Math.max(size, 1), maxPageSize));
+		return ResponseEntity.ok().body(page);
+	}
+	
+	@GetMapping(value = "/stats")
+	public ResponseEntity<List<CategoryStatsDTO>> findStats(){
+		return ResponseEntity.ok().body(service.findStats());
+	}
+	
 	@GetMapping(value = "/{id}")
-	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id){
+	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, WebRequest request){
+		ResourceVersion version = service.findVersion(id);
+		if (request.checkNotModified(version.getEtag(), version.getLastModified().toEpochMilli())) {
+			return null;
+		}
 		CategoryDTO result =  service.findById(id);
 		return ResponseEntity.ok().body(result);
 	}
@@ -47,9 +80,16 @@ public class CategoryResource {
 	}
 	
 	@PutMapping(value = "/{id}")
-	public ResponseEntity<CategoryDTO> update(@PathVariable Long id, @RequestBody CategoryDTO dto){
-		dto = service.update(id, dto);
-		return ResponseEntity.ok(dto);
+	public ResponseEntity<CategoryDTO> update(@PathVariable Long id, @RequestBody CategoryDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		dto = service.update(id, dto, ResourceVersion.expectedVersion(ifMatch));
+		return ResponseEntity.ok().eTag(service.findVersion(id).getEtag()).body(dto);
+	}
+	
+	@DeleteMapping(params = "ids")
+	public ResponseEntity<BulkDeleteResultDTO> deleteAll(@RequestParam List<Long> ids){
+		BulkDeleteResultDTO result = service.deleteAll(ids);
+		return ResponseEntity.ok().body(result);
 	}
 	
 	@DeleteMapping(value = "/{id}")
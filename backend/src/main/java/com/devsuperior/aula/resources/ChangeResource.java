@@ -0,0 +1,30 @@
+package com.devsuperior.aula.resources;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.devsuperior.aula.services.ChangeFeed;
+
+@RestController
+@RequestMapping(value = "/changes")
+public class ChangeResource {
+
+	@Autowired
+	private ChangeFeed changeFeed;
+
+	/**
+	 * Resumes after {@code Last-Event-ID} when the client reconnects, else
+	 * after {@code since}; with neither only new changes are streamed.
+	 */
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter stream(@RequestParam(required = false) Long since,
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId){
+		return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
+	}
+}
@@ -0,0 +1,166 @@
+package com.devsuperior.aula.resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.services.ProductImageStore;
+import com.devsuperior.aula.services.ProductImageStore.StoredImage;
+import com.devsuperior.aula.services.ProductService;
+import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping(value = "/products/{id}/image")
+public class ProductImageResource {
+
+	// Tomcat sends the file itself with sendfile(2) after the servlet returns
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	@Value("${app.images.max-age:1d}")
+	private Duration maxAge;
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private ProductImageStore store;
+
+	/**
+	 * The uploaded image, else a cached copy of the product's {@code imgUrl}.
+	 * Supports conditional requests and a single byte range; the bytes go from
+	 * the file to the socket without passing through the heap, by sendfile
+	 * when the connector supports it and {@link FileChannel#transferTo}
+	 * otherwise.
+	 */
+	@GetMapping
+	public void find(@PathVariable Long id, ServletWebRequest webRequest, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		ProductDTO product = service.findById(id);
+		StoredImage image = store.find(id, product.getImgUrl());
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(maxAge).cachePublic().getHeaderValue());
+		if (webRequest.checkNotModified(image.getEtag(), image.getLastModified().toEpochMilli())) {
+			return;
+		}
+		long length = image.getLength();
+		long start = 0;
+		long end = length - 1;
+		String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+		if (rangeHeader != null && rangeApplies(request.getHeader(HttpHeaders.IF_RANGE), image)) {
+			List<HttpRange> ranges = parseRanges(rangeHeader);
+			// a malformed or multi-range request gets the whole image
+			if (ranges.size() == 1) {
+				start = ranges.get(0).getRangeStart(length);
+				end = ranges.get(0).getRangeEnd(length);
+				if (start >= length || start > end) {
+					response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+					response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+					return;
+				}
+				response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+			}
+		}
+		response.setContentType(image.getMediaType().toString());
+		response.setContentLengthLong(end - start + 1);
+		if (HttpMethod.HEAD.matches(request.getMethod())) {
+			return;
+		}
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			request.setAttribute(SENDFILE_FILENAME, image.getPath().toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, end + 1);
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(image.getPath(), StandardOpenOption.READ)) {
+			WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+			long position = start;
+			while (position <= end) {
+				long sent = channel.transferTo(position, end + 1 - position, out);
+				if (sent <= 0) {
+					break;
+				}
+				position += sent;
+			}
+		}
+	}
+
+	@PutMapping(consumes = { MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+			"image/webp" })
+	public ResponseEntity<Void> upload(@PathVariable Long id,
+			@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+		service.findById(id);
+		store.save(id, MediaType.parseMediaType(contentType), body);
+		return ResponseEntity.noContent().build();
+	}
+
+	@DeleteMapping
+	public ResponseEntity<Void> delete(@PathVariable Long id) {
+		if (!store.deleteUpload(id)) {
+			throw new ResourceNotFoundException("No uploaded image for product " + id);
+		}
+		return ResponseEntity.noContent().build();
+	}
+
+	private static List<HttpRange> parseRanges(String header) {
+		try {
+			return HttpRange.parseRanges(header);
+		}
+		catch (IllegalArgumentException e) {
+			return List.of();
+		}
+	}
+
+	/**
+	 * RFC 9110 If-Range: the range is only served if the client's copy is
+	 * still current, otherwise the whole image is sent.
+	 */
+	private static boolean rangeApplies(String ifRange, StoredImage image) {
+		if (ifRange == null) {
+			return true;
+		}
+		if (ifRange.startsWith("\"")) {
+			return ifRange.equals(image.getEtag());
+		}
+		try {
+			ZonedDateTime date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME);
+			return date.toEpochSecond() == image.getLastModified().getEpochSecond();
+		}
+		catch (DateTimeParseException e) {
+			return false;
+		}
+	}
+}
@@ -1,10 +1,16 @@
 package com.devsuperior.aula.resources;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,44 +18,187 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.aula.entities.Dto.BatchImportResultDTO;
+import com.devsuperior.aula.entities.Dto.BulkDeleteResultDTO;
+import com.devsuperior.aula.entities.Dto.CacheStatsDTO;
+import com.devsuperior.aula.entities.Dto.CursorPageDTO;
+import com.devsuperior.aula.entities.Dto.ProductChangesDTO;
 import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductFilterDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+import com.devsuperior.aula.entities.Dto.WriteStatusDTO;
+import com.devsuperior.aula.services.ExportFormat;
+import com.devsuperior.aula.services.ProductExportService;
+import com.devsuperior.aula.services.ProductImportService;
+import com.devsuperior.aula.services.ProductPageCache;
+import com.devsuperior.aula.services.ProductPageCache.SerializedPage;
 import com.devsuperior.aula.services.ProductService;
+import com.devsuperior.aula.services.ProductSyncService;
+import com.devsuperior.aula.services.ProductWriteQueue;
+import com.devsuperior.aula.services.ResourceVersion;
+import com.devsuperior.aula.services.exceptions.BadRequestException;
 
 @RestController
 @RequestMapping(value = "/products")
 public class ProductResource {
 
+	private static final String PREFER = "Prefer";
+	private static final String PREFERENCE_APPLIED = "Preference-Applied";
+	private static final String RESPOND_ASYNC = "respond-async";
+
+	@Value("${spring.data.web.pageable.max-page-size:2000}")
+	private int maxPageSize;
+	
 	@Autowired
 	private ProductService service;
 	
+	@Autowired
+	private ProductImportService importService;
+	
+	@Autowired
+	private ProductExportService exportService;
+	
+	@Autowired
+	private ProductPageCache pageCache;
+	
+	@Autowired
+	private ProductWriteQueue writeQueue;
+	
+	@Autowired
+	private ProductSyncService syncService;
+	
+	/**
+	 * Unfiltered hot pages are served as cached JSON bytes; clients asking
+	 * for CBOR or Smile go through the message converters.
+	 */
 	@GetMapping
-	public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable) {
-		Page<ProductDTO> list = service.findAllPaged(pageable);
+	public ResponseEntity<?> findAll(ProductFilterDTO filter, Pageable pageable,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		if (filter.isEmpty() && pageCache.accepts(pageable) && ProductPageCache.prefersJson(accept)) {
+			SerializedPage page = pageCache.get(pageable, () -> service.findAllPaged(filter, pageable));
+			ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+					.contentType(MediaType.APPLICATION_JSON)
+					.header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+			if (ProductPageCache.acceptsGzip(acceptEncoding)) {
+				return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.getGzip());
+			}
+			return response.body(page.getJson());
+		}
+		Page<ProductSummaryDTO> list = service.findAllPaged(filter, pageable);
+		return ResponseEntity.ok().body(list);
+	}
+
+	@GetMapping(params = "withCategories=true")
+	public ResponseEntity<Page<ProductSummaryDTO>> findAllWithCategories(ProductFilterDTO filter, Pageable pageable) {
+		Page<ProductSummaryDTO> list = service.findAllPagedWithCategories(filter, pageable);
 		return ResponseEntity.ok().body(list);
 	}
 
+	@GetMapping(params = "after")
+	public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> findAllAfter(@RequestParam String after,
+			@RequestParam(defaultValue = "20") Integer size) {
+		CursorPageDTO<ProductSummaryDTO> page = service.findAllAfter(after, Math.min(Math.max(size, 1), maxPageSize));
+		return ResponseEntity.ok().body(page);
+	}
+
+	/**
+	 * Cursor pages carry no categories; without this mapping the request
+	 * would match both handlers above and fail as ambiguous.
+	 */
+	@GetMapping(params = { "after", "withCategories=true" })
+	public ResponseEntity<Void> findAllAfterWithCategories() {
+		throw new BadRequestException("Cursor pages cannot be requested with categories");
+	}
+
+	@GetMapping(value = "/search")
+	public ResponseEntity<Page<ProductSummaryDTO>> search(@RequestParam(defaultValue = "") String q, Pageable pageable) {
+		Page<ProductSummaryDTO> list = service.search(q, pageable);
+		return ResponseEntity.ok().body(list);
+	}
+
+	/**
+	 * Pass the {@code until} of the last page as {@code since} next time.
+	 */
+	@GetMapping(value = "/changes")
+	public ResponseEntity<ProductChangesDTO> findChanges(@RequestParam(required = false) Instant since,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "100") Integer size) {
+		ProductChangesDTO changes = syncService.findChanges(since, cursor, Math.min(Math.max(size, 1), maxPageSize));
+		return ResponseEntity.ok().body(changes);
+	}
+
+	@GetMapping(value = "/export")
+	public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+			@RequestParam(defaultValue = "false") Boolean withCategories) {
+		StreamingResponseBody body = out -> exportService.export(out, format, withCategories);
+		return ResponseEntity.ok()
+				.contentType(format.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + format.getExtension())
+				.body(body);
+	}
+
 	@GetMapping(value = "/{id}")
-	public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+	public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
+		ResourceVersion version = service.findVersion(id);
+		if (request.checkNotModified(version.getEtag(), version.getLastModified().toEpochMilli())) {
+			return null;
+		}
 		ProductDTO dto = service.findById(id);
 		return ResponseEntity.ok().body(dto);
 	}
 	
+	@GetMapping(value = "/cache/stats")
+	public ResponseEntity<CacheStatsDTO> cacheStats() {
+		return ResponseEntity.ok().body(service.cacheStats());
+	}
+	
+	@GetMapping(value = "/writes/{trackingId}")
+	public ResponseEntity<WriteStatusDTO> findWriteStatus(@PathVariable String trackingId) {
+		return ResponseEntity.ok().body(writeQueue.findStatus(trackingId));
+	}
+	
 	@PostMapping
-	public ResponseEntity<ProductDTO> insert(@RequestBody ProductDTO dto) {
+	public ResponseEntity<?> insert(@RequestBody ProductDTO dto,
+			@RequestHeader(value = PREFER, required = false) String prefer) {
+		if (respondAsync(prefer)) {
+			return accepted(writeQueue.submitInsert(dto));
+		}
 		dto = service.insert(dto);
 		URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
 				.buildAndExpand(dto.getId()).toUri();
 		return ResponseEntity.created(uri).body(dto);
 	}
 
+	@PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public ResponseEntity<BatchImportResultDTO> insertBatch(InputStream body) {
+		BatchImportResultDTO result = importService.importProducts(body);
+		return ResponseEntity.ok().body(result);
+	}
+
 	@PutMapping(value = "/{id}")
-	public ResponseEntity<ProductDTO> update(@PathVariable Long id, @RequestBody ProductDTO dto) {
-		dto = service.update(id, dto);
-		return ResponseEntity.ok().body(dto);
+	public ResponseEntity<?> update(@PathVariable Long id, @RequestBody ProductDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+			@RequestHeader(value = PREFER, required = false) String prefer) {
+		Long expectedVersion = ResourceVersion.expectedVersion(ifMatch);
+		if (respondAsync(prefer)) {
+			return accepted(writeQueue.submitUpdate(id, dto, expectedVersion));
+		}
+		dto = service.update(id, dto, expectedVersion);
+		return ResponseEntity.ok().eTag(service.findVersion(id).getEtag()).body(dto);
+	}
+
+	@DeleteMapping(params = "ids")
+	public ResponseEntity<BulkDeleteResultDTO> deleteAll(@RequestParam List<Long> ids) {
+		BulkDeleteResultDTO result = service.deleteAll(ids);
+		return ResponseEntity.ok().body(result);
 	}
 
 	@DeleteMapping(value = "/{id}")
@@ -57,4 +206,25 @@ public class ProductResource {
 		service.delete(id);
 		return ResponseEntity.noContent().build();
 	}
+
+	/**
+	 * RFC 7240: the client accepts a 202 and polls the status resource.
+	 */
+	private static boolean respondAsync(String prefer) {
+		if (prefer == null) {
+			return false;
+		}
+		for (String preference : prefer.split(",")) {
+			if (preference.split(";")[0].trim().equalsIgnoreCase(RESPOND_ASYNC)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private ResponseEntity<WriteStatusDTO> accepted(WriteStatusDTO status) {
+		URI uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/products/writes/{trackingId}")
+				.buildAndExpand(status.getTrackingId()).toUri();
+		return ResponseEntity.accepted().location(uri).header(PREFERENCE_APPLIED, RESPOND_ASYNC).body(status);
+	}
 } 
@@ -1,38 +1,88 @@
 package com.devsuperior.aula.services;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.devsuperior.aula.entities.Category;
+import com.devsuperior.aula.entities.Dto.BulkDeleteResultDTO;
 import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.CategoryStatsDTO;
+import com.devsuperior.aula.entities.Dto.CursorPageDTO;
 import com.devsuperior.aula.repositories.CategoryRepository;
+import com.devsuperior.aula.services.events.CategoryChangedEvent;
+import com.devsuperior.aula.services.events.ChangeType;
 import com.devsuperior.aula.services.exceptions.DatabaseException;
 import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+
 @Service
+@Timed(value = "catalog.service", histogram = true)
 public class CategoryService {
 
+	private static final int BULK_CHUNK = 1000;
+
 	@Autowired
 	private CategoryRepository repository;
 	
-	@Transactional(readOnly = true)
+	@Autowired
+	private CategorySnapshot snapshot;
+	
+	@Autowired
+	private ApplicationEventPublisher publisher;
+	
+	@Autowired
+	private CategoryStatistics statistics;
+	
+	/**
+	 * Served from {@link CategorySnapshot} without a transaction, unless the
+	 * requested sort is one the snapshot cannot order by.
+	 */
 	public Page<CategoryDTO> findAll(Pageable pageable){
-		Page<Category> result = repository.findAll(pageable);
-		return result.map(x -> new CategoryDTO(x));
+		if (!CategorySnapshot.supports(pageable.getSort())) {
+			Page<Category> result = repository.findAll(pageable);
+			return result.map(x -> new CategoryDTO(x));
+		}
+		return snapshot.findAll(pageable);
+	}
+	
+	public CursorPageDTO<CategoryDTO> findAllAfter(String cursor, int size) {
+		List<CategoryDTO> result = snapshot.findAllAfter(KeysetCursor.decode(cursor), size + 1);
+		List<CategoryDTO> content = result.size() > size ? result.subList(0, size) : result;
+		String next = result.size() > size ? KeysetCursor.encode(content.get(content.size() - 1).getId()) : null;
+		return new CursorPageDTO<>(content, size, next);
 	}
 	
-	@Transactional(readOnly = true)
 	public CategoryDTO findById(Long id) {
-		Optional<Category> obj = repository.findById(id);
-		Category entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
-		return new CategoryDTO(entity);
+		return snapshot.findById(id).orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+	}
+	
+	/**
+	 * One entry per category, including categories without products.
+	 */
+	public List<CategoryStatsDTO> findStats() {
+		return statistics.stats(snapshot.findAllAfter(0L, Integer.MAX_VALUE));
+	}
+	
+	public ResourceVersion findAllVersion() {
+		return snapshot.version();
+	}
+	
+	public ResourceVersion findVersion(Long id) {
+		return snapshot.version(id).orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
 	}
 	
 	@Transactional
@@ -40,31 +90,91 @@ public class CategoryService {
 		Category category = new Category();
 		category.setName(dto.getName());
 		category = repository.save(category);
+		publisher.publishEvent(new CategoryChangedEvent(ChangeType.CREATED, category.getId()));
 		return new CategoryDTO(category);
 	}
 	
 	@Transactional
 	public CategoryDTO update (Long id, CategoryDTO dto) {
+		return update(id, dto, null);
+	}
+	
+	/**
+	 * Updates the category only if it is still at {@code expectedVersion} (any
+	 * version when null); concurrent writers are caught by {@code @Version}.
+	 */
+	@Transactional
+	public CategoryDTO update (Long id, CategoryDTO dto, Long expectedVersion) {
 		try {
 		Category category = repository.getReferenceById(id);
+		ResourceVersion.checkExpected(expectedVersion, category.getVersion());
 		category.setName(dto.getName());
 		category = repository.save(category);
+		publisher.publishEvent(new CategoryChangedEvent(ChangeType.UPDATED, id));
 		return new CategoryDTO(category);
-		}catch(ResourceNotFoundException e) {
+		}catch(EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Recurso não encontrado");
 		}
 	}
 	
-	@Transactional(propagation = Propagation.SUPPORTS)
+	/**
+	 * Flushes inside the try so an integrity violation is translated here,
+	 * and the change event is only seen by listeners once the delete commits.
+	 */
+	@Transactional
     public void delete(Long id) {
     	if (!repository.existsById(id)) {
     		throw new ResourceNotFoundException("Recurso não encontrado");
     	}
     	try {
-            repository.deleteById(id);    		
+            repository.deleteById(id);
+            repository.flush();
+            publisher.publishEvent(new CategoryChangedEvent(ChangeType.DELETED, id));
     	}
         catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Falha de integridade referencial");
         }
     }
+	
+	/**
+	 * Deletes the categories with set-based statements in one transaction.
+	 * Categories still linked to a product are reported as failed and kept,
+	 * ids that do not exist as missing. A product linked to one of them after
+	 * the check fails on integrity and rolls the whole request back.
+	 */
+	@Transactional
+	public BulkDeleteResultDTO deleteAll(Collection<Long> ids) {
+		BulkDeleteResultDTO result = new BulkDeleteResultDTO();
+		List<Long> distinct = List.copyOf(new LinkedHashSet<>(ids));
+		try {
+			for (int i = 0; i < distinct.size(); i += BULK_CHUNK) {
+				List<Long> chunk = distinct.subList(i, Math.min(i + BULK_CHUNK, distinct.size()));
+				Set<Long> existing = new HashSet<>(repository.findExistingIds(chunk));
+				Set<Long> referenced = existing.isEmpty() ? Set.of() : new HashSet<>(repository.findReferencedIds(existing));
+				List<Long> deleted = new ArrayList<>();
+				for (Long id : chunk) {
+					if (!existing.contains(id)) {
+						result.getMissing().add(id);
+					}
+					else if (referenced.contains(id)) {
+						result.getFailed().add(id);
+					}
+					else {
+						deleted.add(id);
+					}
+				}
+				if (!deleted.isEmpty()) {
+					repository.deleteAllByIdIn(deleted);
+				}
+				result.getDeleted().addAll(deleted);
+			}
+		}
+		catch (DataIntegrityViolationException e) {
+			throw new DatabaseException("Falha de integridade referencial");
+		}
+		if (!result.getDeleted().isEmpty()) {
+			publisher.publishEvent(new CategoryChangedEvent(ChangeType.DELETED, result.getDeleted()));
+		}
+		return result;
+	}
 }
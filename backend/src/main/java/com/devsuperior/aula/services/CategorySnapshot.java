@@ -0,0 +1,184 @@
+package com.devsuperior.aula.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.aula.entities.Category;
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.projections.ProductCategoryProjection;
+import com.devsuperior.aula.repositories.CategoryRepository;
+import com.devsuperior.aula.services.events.CategoryChangedEvent;
+
+/**
+ * Immutable in-memory copy of the whole category table. Readers only
+ * dereference a volatile field; every committed category write rebuilds the
+ * snapshot from the database and swaps it in one assignment.
+ */
+@Component
+public class CategorySnapshot {
+
+	private static final Set<String> SORTABLE = Set.of("id", "name");
+
+	@Autowired
+	private CategoryRepository repository;
+
+	private volatile Snapshot current;
+
+	/**
+	 * Whether the snapshot can order by every property of the sort; other
+	 * orderings have to go to the database.
+	 */
+	public static boolean supports(Sort sort) {
+		return sort.stream().allMatch(order -> SORTABLE.contains(order.getProperty()));
+	}
+
+	public Page<CategoryDTO> findAll(Pageable pageable) {
+		List<CategoryDTO> all = snapshot().sorted(pageable.getSort());
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(copyOf(all));
+		}
+		int from = (int) Math.min(pageable.getOffset(), all.size());
+		int to = Math.min(from + pageable.getPageSize(), all.size());
+		return new PageImpl<>(copyOf(all.subList(from, to)), pageable, all.size());
+	}
+
+	/**
+	 * Categories with an id greater than {@code after}, in id order, limited to
+	 * {@code limit} elements.
+	 */
+	public List<CategoryDTO> findAllAfter(long after, int limit) {
+		return snapshot().byId.values().stream()
+				.filter(x -> x.getId() > after)
+				.limit(limit)
+				.map(x -> new CategoryDTO(x.getId(), x.getName()))
+				.toList();
+	}
+
+	public Optional<CategoryDTO> findById(Long id) {
+		CategoryDTO dto = snapshot().byId.get(id);
+		return dto == null ? Optional.empty() : Optional.of(new CategoryDTO(dto.getId(), dto.getName()));
+	}
+
+	/**
+	 * Version of the whole category collection. The tag changes whenever a
+	 * category is created, renamed or deleted.
+	 */
+	public ResourceVersion version() {
+		return snapshot().version;
+	}
+
+	public Optional<ResourceVersion> version(Long id) {
+		return Optional.ofNullable(snapshot().versions.get(id));
+	}
+
+	public boolean contains(Long id) {
+		return snapshot().byId.containsKey(id);
+	}
+
+	/**
+	 * Resolves product/category link rows to categories, grouped by product id.
+	 */
+	public Map<Long, List<CategoryDTO>> groupByProduct(List<ProductCategoryProjection> links) {
+		Map<Long, CategoryDTO> byId = snapshot().byId;
+		Map<Long, List<CategoryDTO>> result = new HashMap<>();
+		for (ProductCategoryProjection link : links) {
+			CategoryDTO cat = byId.get(link.getCategoryId());
+			if (cat != null) {
+				result.computeIfAbsent(link.getProductId(), k -> new ArrayList<>())
+						.add(new CategoryDTO(cat.getId(), cat.getName()));
+			}
+		}
+		return result;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		reload();
+	}
+
+	public synchronized void reload() {
+		Map<Long, CategoryDTO> byId = new LinkedHashMap<>();
+		Map<Long, ResourceVersion> versions = new HashMap<>();
+		for (Category x : repository.findAll(Sort.by("id"))) {
+			byId.put(x.getId(), new CategoryDTO(x));
+			versions.put(x.getId(), new ResourceVersion(String.valueOf(x.getVersion()), lastModified(x)));
+		}
+		current = new Snapshot(byId, versions);
+	}
+
+	private Snapshot snapshot() {
+		Snapshot snapshot = current;
+		if (snapshot == null) {
+			synchronized (this) {
+				if (current == null) {
+					reload();
+				}
+				snapshot = current;
+			}
+		}
+		return snapshot;
+	}
+
+	private static Instant lastModified(Category category) {
+		if (category.getUpdatedAt() != null) {
+			return category.getUpdatedAt();
+		}
+		return category.getCreatedAt() != null ? category.getCreatedAt() : Instant.EPOCH;
+	}
+
+	private static List<CategoryDTO> copyOf(List<CategoryDTO> list) {
+		return list.stream().map(x -> new CategoryDTO(x.getId(), x.getName())).toList();
+	}
+
+	private static final class Snapshot {
+
+		private final Map<Long, CategoryDTO> byId;
+		private final Map<Long, ResourceVersion> versions;
+		private final List<CategoryDTO> list;
+		private final ResourceVersion version;
+
+		private Snapshot(Map<Long, CategoryDTO> byId, Map<Long, ResourceVersion> versions) {
+			this.byId = byId;
+			this.versions = versions;
+			this.list = List.copyOf(byId.values());
+			Instant latest = versions.values().stream().map(ResourceVersion::getLastModified)
+					.max(Comparator.naturalOrder()).orElse(Instant.EPOCH);
+			this.version = new ResourceVersion(byId.size() + "-" + latest.toEpochMilli(), latest);
+		}
+
+		private List<CategoryDTO> sorted(Sort sort) {
+			if (sort.isUnsorted()) {
+				return list;
+			}
+			Comparator<CategoryDTO> comparator = null;
+			for (Sort.Order order : sort) {
+				Comparator<CategoryDTO> next = comparatorFor(order);
+				comparator = comparator == null ? next : comparator.thenComparing(next);
+			}
+			return list.stream().sorted(comparator).toList();
+		}
+
+		private static Comparator<CategoryDTO> comparatorFor(Sort.Order order) {
+			Comparator<String> names = order.isIgnoreCase() ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+			Comparator<CategoryDTO> comparator = order.getProperty().equals("id")
+					? Comparator.comparing(CategoryDTO::getId)
+					: Comparator.comparing(CategoryDTO::getName, Comparator.nullsFirst(names));
+			return order.isDescending() ? comparator.reversed() : comparator;
+		}
+	}
+}
@@ -0,0 +1,246 @@
+package com.devsuperior.aula.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.CategoryStatsDTO;
+import com.devsuperior.aula.projections.CategoryStatsProjection;
+import com.devsuperior.aula.projections.ProductPriceProjection;
+import com.devsuperior.aula.repositories.CategoryRepository;
+import com.devsuperior.aula.repositories.ProductRepository;
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+
+/**
+ * Product count and min/avg/max price per category, kept in memory and
+ * updated from {@link ProductChangedEvent}s after commit, so reading them
+ * costs O(#categories). The last known price and categories of each product
+ * are kept, so an update or delete takes back exactly what the product had
+ * added. Min and max come from a per-category price multiset and stay exact
+ * when the cheapest or most expensive product leaves.
+ * <p>
+ * Writes that bypass the services, or two events for one product applied out
+ * of order, can make the counters drift; a scheduled job compares them with
+ * an aggregate over {@code tb_product_category} and rebuilds them if needed.
+ */
+@Component
+public class CategoryStatistics {
+
+	private static final Logger logger = LoggerFactory.getLogger(CategoryStatistics.class);
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Map<Long, Contribution> contributions = new HashMap<>();
+	private Map<Long, Bucket> buckets = new HashMap<>();
+	// ids changed while a rebuild was loading, re-applied once it is swapped in
+	private Set<Long> changedDuringRebuild;
+
+	public synchronized List<CategoryStatsDTO> stats(List<CategoryDTO> categories) {
+		List<CategoryStatsDTO> result = new ArrayList<>(categories.size());
+		for (CategoryDTO category : categories) {
+			Bucket bucket = buckets.getOrDefault(category.getId(), Bucket.EMPTY);
+			result.add(new CategoryStatsDTO(category.getId(), category.getName(), bucket.count, bucket.min(),
+					bucket.avg(), bucket.max()));
+		}
+		return result;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		long start = System.currentTimeMillis();
+		synchronized (this) {
+			changedDuringRebuild = new HashSet<>();
+		}
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+		Map<Long, Contribution> loaded = template.execute(status -> {
+			try (Stream<ProductPriceProjection> stream = productRepository.streamPriceCategories()) {
+				return contributions(stream);
+			}
+		});
+		Set<Long> changed;
+		synchronized (this) {
+			contributions = new HashMap<>();
+			buckets = new HashMap<>();
+			loaded.forEach(this::add);
+			changed = changedDuringRebuild;
+			changedDuringRebuild = null;
+		}
+		if (!changed.isEmpty()) {
+			reload(changed);
+		}
+		logger.info("Category statistics built from {} products in {} ms", loaded.size(),
+				System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Returns true when the counters had drifted and were rebuilt.
+	 */
+	@Scheduled(initialDelayString = "${app.stats.reconcile-interval:PT10M}",
+			fixedDelayString = "${app.stats.reconcile-interval:PT10M}")
+	public boolean reconcile() {
+		List<CategoryStatsProjection> actual = categoryRepository.aggregateProductStats();
+		int drifted = drift(actual);
+		if (drifted == 0) {
+			return false;
+		}
+		logger.warn("Category statistics drifted for {} categories, rebuilding", drifted);
+		rebuild();
+		return true;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.getType() == ChangeType.DELETED) {
+			apply(event.getProductIds(), Map.of());
+		}
+		else {
+			reload(event.getProductIds());
+		}
+	}
+
+	private void reload(Collection<Long> ids) {
+		apply(ids, contributions(productRepository.findPriceCategories(ids).stream()));
+	}
+
+	private synchronized void apply(Collection<Long> ids, Map<Long, Contribution> loaded) {
+		for (Long id : ids) {
+			Contribution old = contributions.remove(id);
+			if (old != null) {
+				old.categoryIds.forEach(categoryId -> bucket(categoryId).remove(old.price));
+			}
+			Contribution current = loaded.get(id);
+			if (current != null) {
+				add(id, current);
+			}
+		}
+		if (changedDuringRebuild != null) {
+			changedDuringRebuild.addAll(ids);
+		}
+	}
+
+	private void add(Long id, Contribution contribution) {
+		contributions.put(id, contribution);
+		contribution.categoryIds.forEach(categoryId -> bucket(categoryId).add(contribution.price));
+	}
+
+	private Bucket bucket(Long categoryId) {
+		return buckets.computeIfAbsent(categoryId, k -> new Bucket());
+	}
+
+	private synchronized int drift(List<CategoryStatsProjection> actual) {
+		int drifted = 0;
+		Set<Long> seen = new HashSet<>();
+		for (CategoryStatsProjection x : actual) {
+			seen.add(x.getCategoryId());
+			Bucket bucket = buckets.getOrDefault(x.getCategoryId(), Bucket.EMPTY);
+			if (bucket.count != x.getProductCount() || !Objects.equals(bucket.min(), x.getMinPrice())
+					|| !Objects.equals(bucket.max(), x.getMaxPrice()) || !sameSum(bucket.sum, x.getPriceSum())) {
+				drifted++;
+			}
+		}
+		for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+			if (!seen.contains(entry.getKey()) && entry.getValue().count > 0) {
+				drifted++;
+			}
+		}
+		return drifted;
+	}
+
+	private static boolean sameSum(double sum, Double actual) {
+		double expected = actual == null ? 0.0 : actual;
+		return Math.abs(sum - expected) <= 1e-6 * Math.max(1.0, Math.abs(expected));
+	}
+
+	private static Map<Long, Contribution> contributions(Stream<ProductPriceProjection> rows) {
+		Map<Long, Contribution> result = new HashMap<>();
+		rows.forEach(x -> {
+			Contribution contribution = result.computeIfAbsent(x.getProductId(), k -> new Contribution(x.getPrice()));
+			if (x.getCategoryId() != null) {
+				contribution.categoryIds.add(x.getCategoryId());
+			}
+		});
+		return result;
+	}
+
+	private static class Contribution {
+
+		private final Double price;
+		private final List<Long> categoryIds = new ArrayList<>(2);
+
+		Contribution(Double price) {
+			this.price = price;
+		}
+	}
+
+	/**
+	 * Products are counted whether or not they have a price; the price
+	 * aggregates only cover products that do, like SQL's MIN/AVG/MAX.
+	 */
+	private static class Bucket {
+
+		private static final Bucket EMPTY = new Bucket();
+
+		private long count;
+		private double sum;
+		private long priced;
+		private final TreeMap<Double, Integer> prices = new TreeMap<>();
+
+		void add(Double price) {
+			count++;
+			if (price != null) {
+				sum += price;
+				priced++;
+				prices.merge(price, 1, Integer::sum);
+			}
+		}
+
+		void remove(Double price) {
+			count--;
+			if (price != null) {
+				sum -= price;
+				priced--;
+				prices.computeIfPresent(price, (k, n) -> n == 1 ? null : n - 1);
+			}
+		}
+
+		Double min() {
+			return prices.isEmpty() ? null : prices.firstKey();
+		}
+
+		Double max() {
+			return prices.isEmpty() ? null : prices.lastKey();
+		}
+
+		Double avg() {
+			return priced == 0 ? null : sum / priced;
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.devsuperior.aula.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.devsuperior.aula.entities.Dto.ChangeEventDTO;
+import com.devsuperior.aula.entities.Dto.ChangeEventDTO.Entity;
+import com.devsuperior.aula.services.events.CategoryChangedEvent;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Records committed product and category changes in the {@link ChangeLog} and
+ * streams them to Server-Sent Events subscribers. Each event carries its
+ * sequence number as SSE id, so a client that reconnects with
+ * {@code Last-Event-ID} continues where it stopped. When the changes it asks
+ * for are no longer retained, or the sequence belongs to an earlier run of the
+ * application (see {@link ChangeLog}), it first gets a {@code reset} event and should re-read the
+ * catalog before applying the changes that follow.
+ * <p>
+ * Deliveries to one subscriber never overlap; different subscribers are
+ * served in parallel by {@code app.changes.dispatch-threads} threads, so a
+ * slow client does not hold the writers back, only its own stream.
+ */
+@Service
+public class ChangeFeed implements MeterBinder {
+
+	private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+	public static final String CHANGE_EVENT = "change";
+	public static final String RESET_EVENT = "reset";
+
+	private static final int SEND_BATCH = 500;
+
+	@Autowired
+	private ChangeLog changeLog;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final ExecutorService dispatcher;
+	private final long timeoutMillis;
+
+	public ChangeFeed(@Value("${app.changes.dispatch-threads:2}") int threads,
+			@Value("${app.changes.emitter-timeout:30m}") Duration timeout) {
+		this.dispatcher = Executors.newFixedThreadPool(Math.max(1, threads), new CustomizableThreadFactory("change-feed-"));
+		this.timeoutMillis = timeout.toMillis();
+	}
+
+	@PreDestroy
+	public void stop() {
+		dispatcher.shutdownNow();
+		subscribers.forEach(subscriber -> subscriber.emitter.complete());
+		subscribers.clear();
+	}
+
+	/**
+	 * Streams the changes after {@code after}, or only new ones when it is null.
+	 */
+	public SseEmitter subscribe(Long after) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscriber subscriber = new Subscriber(emitter, after == null ? changeLog.lastSequence() : after);
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(e -> subscribers.remove(subscriber));
+		subscribers.add(subscriber);
+		schedule(subscriber);
+		return emitter;
+	}
+
+	public int subscribers() {
+		return subscribers.size();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		changeLog.append(Entity.PRODUCT, event.getType(), event.getProductIds());
+		subscribers.forEach(this::schedule);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		changeLog.append(Entity.CATEGORY, event.getType(), event.getCategoryIds());
+		subscribers.forEach(this::schedule);
+	}
+
+	/**
+	 * Comment lines keep idle streams from being closed by proxies, and find
+	 * the subscribers that went away without the container noticing. They
+	 * are sent by the dispatcher like changes, so a stalled client never holds
+	 * up the shared scheduler thread.
+	 */
+	@Scheduled(initialDelayString = "${app.changes.heartbeat:PT15S}", fixedDelayString = "${app.changes.heartbeat:PT15S}")
+	public void heartbeat() {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.heartbeatDue = true;
+			schedule(subscriber);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("catalog.changes.subscribers", this, ChangeFeed::subscribers)
+				.description("Open change event streams")
+				.register(registry);
+		Gauge.builder("catalog.changes.sequence", changeLog, ChangeLog::lastSequence)
+				.description("Sequence number of the last recorded change")
+				.register(registry);
+	}
+
+	private void schedule(Subscriber subscriber) {
+		subscriber.pending = true;
+		if (subscriber.running.compareAndSet(false, true)) {
+			try {
+				dispatcher.execute(() -> deliver(subscriber));
+			}
+			catch (RejectedExecutionException e) {
+				subscriber.running.set(false);
+			}
+		}
+	}
+
+	private void deliver(Subscriber subscriber) {
+		try {
+			do {
+				subscriber.pending = false;
+				send(subscriber);
+				if (subscriber.heartbeatDue) {
+					subscriber.heartbeatDue = false;
+					subscriber.emitter.send(SseEmitter.event().comment(""));
+				}
+				subscriber.running.set(false);
+				// a change recorded after the last read but before running was
+				// cleared found it still set and left the delivery to us
+			} while (subscriber.pending && subscriber.running.compareAndSet(false, true));
+		}
+		catch (IOException | IllegalStateException e) {
+			drop(subscriber, e);
+		}
+	}
+
+	private void send(Subscriber subscriber) throws IOException {
+		long oldest = changeLog.oldestSequence();
+		long last = changeLog.lastSequence();
+		if (subscriber.cursor + 1 < oldest || subscriber.cursor > last) {
+			subscriber.cursor = oldest - 1;
+			subscriber.emitter.send(SseEmitter.event().id(Long.toString(subscriber.cursor)).name(RESET_EVENT)
+					.data(subscriber.cursor));
+		}
+		List<ChangeEventDTO> batch;
+		while (!(batch = changeLog.readAfter(subscriber.cursor, SEND_BATCH)).isEmpty()) {
+			if (batch.get(0).getSequence() != subscriber.cursor + 1) {
+				// overwritten while we were sending the previous batch
+				send(subscriber);
+				return;
+			}
+			for (ChangeEventDTO event : batch) {
+				subscriber.emitter.send(SseEmitter.event().id(Long.toString(event.getSequence())).name(CHANGE_EVENT)
+						.data(event, MediaType.APPLICATION_JSON));
+				subscriber.cursor = event.getSequence();
+			}
+		}
+	}
+
+	private void drop(Subscriber subscriber, Exception e) {
+		if (subscribers.remove(subscriber)) {
+			logger.debug("Change stream closed: {}", e.getMessage());
+			subscriber.emitter.completeWithError(e);
+		}
+	}
+
+	private static class Subscriber {
+
+		private final SseEmitter emitter;
+		private final AtomicBoolean running = new AtomicBoolean();
+		private volatile boolean pending;
+		private volatile boolean heartbeatDue;
+		// only touched by the delivery that holds running
+		private long cursor;
+
+		Subscriber(SseEmitter emitter, long cursor) {
+			this.emitter = emitter;
+			this.cursor = cursor;
+		}
+	}
+}
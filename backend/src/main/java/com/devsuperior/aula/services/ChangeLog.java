@@ -0,0 +1,85 @@
+package com.devsuperior.aula.services;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.aula.entities.Dto.ChangeEventDTO;
+import com.devsuperior.aula.entities.Dto.ChangeEventDTO.Entity;
+import com.devsuperior.aula.services.events.ChangeType;
+
+/**
+ * The last {@code app.changes.buffer-size} committed catalog changes, numbered
+ * in commit order. Older changes are overwritten; a reader whose position has
+ * been overwritten can tell from {@link #oldestSequence()} and has to
+ * resynchronise from the catalog itself.
+ * <p>
+ * Nothing is persisted. Numbering starts after the start time in
+ * milliseconds times {@value #SEQUENCES_PER_MILLI}, so every run numbers
+ * above the previous one (unless that one averaged more changes per
+ * millisecond) and a position from an earlier run is older than
+ * {@link #oldestSequence()}, like an overwritten one.
+ */
+@Component
+public class ChangeLog {
+
+	static final long SEQUENCES_PER_MILLI = 1000;
+
+	private final ChangeEventDTO[] buffer;
+	private final Clock clock;
+	private final long firstSequence;
+	private long lastSequence;
+
+	@Autowired
+	public ChangeLog(@Value("${app.changes.buffer-size:10000}") int capacity) {
+		this(capacity, Clock.systemUTC());
+	}
+
+	ChangeLog(int capacity, Clock clock) {
+		this.buffer = new ChangeEventDTO[Math.max(1, capacity)];
+		this.clock = clock;
+		this.lastSequence = clock.millis() * SEQUENCES_PER_MILLI;
+		this.firstSequence = lastSequence + 1;
+	}
+
+	public synchronized ChangeEventDTO append(Entity entity, ChangeType type, List<Long> ids) {
+		ChangeEventDTO event = new ChangeEventDTO(++lastSequence, entity, type, List.copyOf(ids), clock.instant());
+		buffer[slot(lastSequence)] = event;
+		return event;
+	}
+
+	/**
+	 * Up to {@code max} retained changes with a sequence number greater than
+	 * {@code sequence}, oldest first.
+	 */
+	public synchronized List<ChangeEventDTO> readAfter(long sequence, int max) {
+		long from = Math.max(sequence + 1, oldestSequence());
+		long to = Math.min(lastSequence, from + max - 1);
+		List<ChangeEventDTO> result = new ArrayList<>((int) Math.max(0, to - from + 1));
+		for (long seq = from; seq <= to; seq++) {
+			result.add(buffer[slot(seq)]);
+		}
+		return result;
+	}
+
+	public synchronized long lastSequence() {
+		return lastSequence;
+	}
+
+	/**
+	 * The first sequence number still retained (the first of this run while
+	 * the buffer has not wrapped yet). Changes after {@code sequence} can only be replayed
+	 * completely when {@code sequence + 1 >= oldestSequence()}.
+	 */
+	public synchronized long oldestSequence() {
+		return Math.max(firstSequence, lastSequence - buffer.length + 1);
+	}
+
+	private int slot(long sequence) {
+		return (int) ((sequence - firstSequence) % buffer.length);
+	}
+}
@@ -0,0 +1,24 @@
+package com.devsuperior.aula.services;
+
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+	NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+	CSV(new MediaType("text", "csv"), "csv");
+
+	private final MediaType mediaType;
+	private final String extension;
+
+	private ExportFormat(MediaType mediaType, String extension) {
+		this.mediaType = mediaType;
+		this.extension = extension;
+	}
+
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+}
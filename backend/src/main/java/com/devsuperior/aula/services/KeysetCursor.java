@@ -0,0 +1,86 @@
+package com.devsuperior.aula.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.devsuperior.aula.services.exceptions.InvalidCursorException;
+
+/**
+ * Opaque cursor used by the keyset (seek) listings. It only carries the last
+ * id returned, so the next page is a plain {@code id > ?} range scan on the
+ * primary key instead of an OFFSET. Listings ordered by a timestamp use a
+ * {@link Position}, the last {@code (timestamp, id)} returned.
+ */
+public final class KeysetCursor {
+
+	private static final String PREFIX = "id:";
+	private static final String AT_PREFIX = "at:";
+
+	private KeysetCursor() {
+	}
+
+	public static String encode(Long lastId) {
+		byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+	}
+
+	/**
+	 * Returns the last id seen, or 0 for an empty cursor (first page).
+	 */
+	public static long decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return 0L;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (!raw.startsWith(PREFIX)) {
+				throw new InvalidCursorException("Invalid cursor " + cursor);
+			}
+			return Long.parseLong(raw.substring(PREFIX.length()));
+		}
+		catch (IllegalArgumentException e) {
+			throw new InvalidCursorException("Invalid cursor " + cursor);
+		}
+	}
+
+	public static String encode(Position position) {
+		byte[] raw = (AT_PREFIX + position.getTime() + "," + position.getId()).getBytes(StandardCharsets.UTF_8);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+	}
+
+	public static Position decodePosition(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int comma = raw.lastIndexOf(',');
+			if (!raw.startsWith(AT_PREFIX) || comma < 0) {
+				throw new InvalidCursorException("Invalid cursor " + cursor);
+			}
+			return new Position(Instant.parse(raw.substring(AT_PREFIX.length(), comma)),
+					Long.parseLong(raw.substring(comma + 1)));
+		}
+		catch (IllegalArgumentException | DateTimeException e) {
+			throw new InvalidCursorException("Invalid cursor " + cursor);
+		}
+	}
+
+	public static final class Position {
+
+		private final Instant time;
+		private final long id;
+
+		public Position(Instant time, long id) {
+			this.time = time;
+			this.id = id;
+		}
+
+		public Instant getTime() {
+			return time;
+		}
+
+		public long getId() {
+			return id;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.devsuperior.aula.services;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.aula.entities.Dto.CacheStatsDTO;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.CategoryChangedEvent;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache of product details (with categories), keyed by
+ * product id. Entries are dropped after the writing transaction commits, so a
+ * reader can never repopulate the cache with a value that is about to change.
+ * A second, much smaller cache keeps only each product's version so
+ * conditional requests can be answered without the full DTO.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+	private final Cache<Long, ProductDTO> cache;
+	private final Cache<Long, ResourceVersion> versions;
+
+	public ProductCache(@Value("${app.cache.products.max-size:10000}") long maxSize,
+			@Value("${app.cache.products.ttl:10m}") Duration ttl) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		this.versions = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.build();
+	}
+
+	public ProductDTO get(Long id, Function<Long, ProductDTO> loader) {
+		return cache.get(id, loader);
+	}
+
+	public ResourceVersion getVersion(Long id, Function<Long, ResourceVersion> loader) {
+		return versions.get(id, loader);
+	}
+
+	public void invalidate(Long id) {
+		cache.invalidate(id);
+		versions.invalidate(id);
+	}
+
+	/**
+	 * Drops every cached product that references the category. Category writes
+	 * are rare, so a scan of the cached values is cheaper than keeping a reverse
+	 * index up to date on every read.
+	 */
+	public void invalidateByCategory(Long categoryId) {
+		invalidateByCategories(List.of(categoryId));
+	}
+
+	public void invalidateByCategories(Collection<Long> categoryIds) {
+		cache.asMap().values().removeIf(dto -> dto.getCategories().stream()
+				.anyMatch(cat -> categoryIds.contains(cat.getId())));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "products");
+	}
+
+	public CacheStatsDTO stats() {
+		return new CacheStatsDTO(cache.estimatedSize(), cache.stats());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		cache.invalidateAll(event.getProductIds());
+		versions.invalidateAll(event.getProductIds());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		if (event.getType() != ChangeType.CREATED) {
+			invalidateByCategories(event.getCategoryIds());
+		}
+	}
+}
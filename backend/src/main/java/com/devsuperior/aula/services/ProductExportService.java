@@ -0,0 +1,145 @@
+package com.devsuperior.aula.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Streams the whole catalog from a forward-only cursor. Rows are written
+ * chunk by chunk and the persistence context is cleared after each chunk,
+ * so memory use does not grow with the size of the table. Categories come
+ * from one link query per chunk and are resolved against
+ * {@link CategorySnapshot}.
+ */
+@Service
+public class ProductExportService {
+
+	private static final String CSV_HEADER = "id,name,price,imgUrl,date,description";
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private CategorySnapshot categorySnapshot;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final TransactionTemplate transactionTemplate;
+	private final int chunkSize;
+
+	public ProductExportService(PlatformTransactionManager transactionManager,
+			@Value("${app.export.chunk-size:500}") int chunkSize) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.chunkSize = chunkSize;
+	}
+
+	public void export(OutputStream target, ExportFormat format, boolean withCategories) throws IOException {
+		OutputStream out = new BufferedOutputStream(target, 64 * 1024);
+		if (format == ExportFormat.CSV) {
+			writeLine(out, withCategories ? CSV_HEADER + ",categories" : CSV_HEADER);
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				try (Stream<Product> stream = repository.streamAll()) {
+					Iterator<Product> it = stream.iterator();
+					List<Product> chunk = new ArrayList<>(chunkSize);
+					while (it.hasNext()) {
+						chunk.add(it.next());
+						if (chunk.size() == chunkSize || !it.hasNext()) {
+							writeChunk(out, chunk, format, withCategories);
+							chunk.clear();
+							entityManager.clear();
+						}
+					}
+				}
+			});
+		}
+		catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		out.flush();
+	}
+
+	private void writeChunk(OutputStream out, List<Product> chunk, ExportFormat format, boolean withCategories) {
+		Map<Long, List<CategoryDTO>> categories = withCategories ? categoriesOf(chunk) : Map.of();
+		try {
+			for (Product product : chunk) {
+				ProductDTO dto = new ProductDTO(product);
+				dto.setCategories(categories.getOrDefault(product.getId(), List.of()));
+				if (format == ExportFormat.CSV) {
+					writeLine(out, toCsv(dto, withCategories));
+				}
+				else {
+					out.write(objectMapper.writeValueAsBytes(dto));
+					out.write('\n');
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Map<Long, List<CategoryDTO>> categoriesOf(List<Product> chunk) {
+		List<Long> ids = chunk.stream().map(Product::getId).toList();
+		return categorySnapshot.groupByProduct(repository.findCategoryLinks(ids));
+	}
+
+	private static String toCsv(ProductDTO dto, boolean withCategories) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(dto.getId()).append(',')
+			.append(csv(dto.getName())).append(',')
+			.append(dto.getPrice() == null ? "" : dto.getPrice()).append(',')
+			.append(csv(dto.getImgUrl())).append(',')
+			.append(dto.getDate() == null ? "" : dto.getDate()).append(',')
+			.append(csv(dto.getDescription()));
+		if (withCategories) {
+			String names = dto.getCategories().stream().map(CategoryDTO::getName).collect(Collectors.joining(";"));
+			sb.append(',').append(csv(names));
+		}
+		return sb.toString();
+	}
+
+	private static String csv(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private static void writeLine(OutputStream out, String line) throws IOException {
+		out.write(line.getBytes(StandardCharsets.UTF_8));
+		out.write('\n');
+	}
+}
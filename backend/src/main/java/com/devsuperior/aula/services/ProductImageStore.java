@@ -0,0 +1,483 @@
+package com.devsuperior.aula.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+import com.devsuperior.aula.services.exceptions.ImageTooLargeException;
+import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Product images on the local disk, under {@code app.images.dir}:
+ * <ul>
+ * <li>{@code uploads/}: images uploaded through the API, kept until replaced
+ * or the product is deleted;</li>
+ * <li>{@code cache/}: copies of the external {@code imgUrl} images, fetched
+ * on first request and bounded to {@code app.images.cache-max-size} bytes,
+ * least recently used first.</li>
+ * </ul>
+ * Every stored version gets a new file name, which doubles as the ETag, and
+ * files that are replaced, evicted or deleted stay in place for
+ * {@code app.images.retire-delay} before they are removed. A response that
+ * already found the file can still open it: Tomcat's sendfile opens it by
+ * name only after the handler returns. Once open, the bytes stay readable
+ * even if the file is removed.
+ * <p>
+ * Any client can set {@code imgUrl}, so fetches are limited: only
+ * {@code app.images.remote-schemes}, only {@code app.images.remote-hosts} when
+ * that list is set, never a host that resolves to a loopback, link-local or
+ * private address, no redirects, and only responses with an image
+ * Content-Type.
+ */
+@Component
+public class ProductImageStore implements MeterBinder {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductImageStore.class);
+
+	private static final Map<String, MediaType> TYPES = Map.of(
+			"jpg", MediaType.IMAGE_JPEG,
+			"png", MediaType.IMAGE_PNG,
+			"gif", MediaType.IMAGE_GIF,
+			"webp", MediaType.valueOf("image/webp"));
+
+	private final Path uploadDir;
+	private final Path cacheDir;
+	private final long maxFileBytes;
+	private final Set<String> remoteSchemes;
+	private final Set<String> remoteHosts;
+	private final int fetchTimeoutMillis;
+	private final Duration retireDelay;
+	private final Map<Path, Instant> retired = new ConcurrentHashMap<>();
+	private final Map<Long, StoredImage> uploads = new ConcurrentHashMap<>();
+	private final Cache<Long, StoredImage> cached;
+	private final Map<Long, CompletableFuture<StoredImage>> fetches = new ConcurrentHashMap<>();
+
+	public ProductImageStore(@Value("${app.images.dir:${java.io.tmpdir}/dscatalog-images}") Path dir,
+			@Value("${app.images.cache-max-size:1GB}") DataSize cacheMaxSize,
+			@Value("${app.images.max-file-size:10MB}") DataSize maxFileSize,
+			@Value("${app.images.remote-schemes:http,https}") Set<String> remoteSchemes,
+			@Value("${app.images.remote-hosts:}") Set<String> remoteHosts,
+			@Value("${app.images.fetch-timeout:5s}") Duration fetchTimeout,
+			@Value("${app.images.retire-delay:PT1M}") Duration retireDelay) {
+		this.uploadDir = dir.resolve("uploads");
+		this.cacheDir = dir.resolve("cache");
+		this.maxFileBytes = maxFileSize.toBytes();
+		this.remoteSchemes = Set.copyOf(remoteSchemes);
+		this.remoteHosts = remoteHosts.stream().map(x -> x.trim().toLowerCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+		this.fetchTimeoutMillis = (int) fetchTimeout.toMillis();
+		this.retireDelay = retireDelay;
+		// eviction runs on the calling thread, so the size bound holds when put returns
+		this.cached = Caffeine.newBuilder()
+				.maximumWeight(cacheMaxSize.toBytes())
+				.weigher((Long id, StoredImage image) -> (int) Math.min(image.length, Integer.MAX_VALUE))
+				.removalListener((Long id, StoredImage image, RemovalCause cause) -> retire(image))
+				.executor(Runnable::run)
+				.build();
+	}
+
+	/**
+	 * Creates the directories and indexes the files left by a previous run;
+	 * older cached files are indexed first, so they are evicted first.
+	 */
+	@PostConstruct
+	public void init() throws IOException {
+		Files.createDirectories(uploadDir);
+		Files.createDirectories(cacheDir);
+		for (StoredImage image : scan(uploadDir)) {
+			StoredImage previous = uploads.put(image.productId, image);
+			if (previous != null) {
+				retire(previous);
+			}
+		}
+		scan(cacheDir).forEach(image -> cached.put(image.productId, image));
+	}
+
+	/**
+	 * The uploaded image, else the cached copy of {@code imgUrl}, fetching it
+	 * on a miss.
+	 */
+	public StoredImage find(Long productId, String imgUrl) {
+		StoredImage image = uploads.get(productId);
+		if (image == null) {
+			image = cached.getIfPresent(productId);
+		}
+		if (image == null && imgUrl != null && !imgUrl.isBlank()) {
+			image = fetch(productId, imgUrl);
+		}
+		if (image == null) {
+			throw new ResourceNotFoundException("Image not found for product " + productId);
+		}
+		return image;
+	}
+
+	public StoredImage save(Long productId, MediaType type, InputStream body) {
+		String extension = extension(type);
+		if (extension == null) {
+			throw new IllegalArgumentException("Unsupported image type " + type);
+		}
+		try {
+			StoredImage image = write(uploadDir, productId, extension, body);
+			StoredImage previous = uploads.put(productId, image);
+			if (previous != null) {
+				retire(previous);
+			}
+			cached.invalidate(productId);
+			return image;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public boolean deleteUpload(Long productId) {
+		StoredImage previous = uploads.remove(productId);
+		if (previous != null) {
+			retire(previous);
+		}
+		return previous != null;
+	}
+
+	/**
+	 * Removes the files retired at least {@code app.images.retire-delay} ago.
+	 */
+	@Scheduled(initialDelayString = "${app.images.retire-delay:PT1M}", fixedDelayString = "${app.images.retire-delay:PT1M}")
+	public void purgeRetired() {
+		Instant cutoff = Instant.now().minus(retireDelay);
+		retired.forEach((path, since) -> {
+			if (!since.isAfter(cutoff) && retired.remove(path, since)) {
+				deleteQuietly(path);
+			}
+		});
+	}
+
+	/**
+	 * Nothing is being sent any more, so the retired files can go now
+	 * instead of coming back with the next start.
+	 */
+	@PreDestroy
+	public void stop() {
+		retired.keySet().forEach(path -> {
+			if (retired.remove(path) != null) {
+				deleteQuietly(path);
+			}
+		});
+	}
+
+	/**
+	 * A deleted product takes its images along; an update may have changed
+	 * {@code imgUrl}, so its cached copy is dropped.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		for (Long id : event.getProductIds()) {
+			if (event.getType() == ChangeType.DELETED) {
+				deleteUpload(id);
+			}
+			cached.invalidate(id);
+		}
+	}
+
+	public long cachedBytes() {
+		return cached.policy().eviction().map(x -> x.weightedSize().orElse(0L)).orElse(0L);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("catalog.images.cache.bytes", this, ProductImageStore::cachedBytes)
+				.description("Bytes of remote product images cached on disk")
+				.register(registry);
+	}
+
+	private StoredImage fetch(Long productId, String imgUrl) {
+		URI uri;
+		try {
+			uri = URI.create(imgUrl);
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (uri.getScheme() == null || !remoteSchemes.contains(uri.getScheme().toLowerCase(Locale.ROOT))) {
+			return null;
+		}
+		// one fetch per product at a time; the others wait on its future, which
+		// parks instead of pinning a virtual thread for the whole download
+		CompletableFuture<StoredImage> fetch = new CompletableFuture<>();
+		CompletableFuture<StoredImage> running = fetches.putIfAbsent(productId, fetch);
+		if (running != null) {
+			return running.join();
+		}
+		StoredImage image = null;
+		try {
+			image = cached.getIfPresent(productId);
+			if (image == null) {
+				image = download(productId, uri);
+			}
+			return image;
+		}
+		catch (IOException | ImageTooLargeException e) {
+			logger.warn("Could not fetch image of product {} from {}: {}", productId, imgUrl, e.getMessage());
+			return null;
+		}
+		finally {
+			fetches.remove(productId, fetch);
+			fetch.complete(image);
+		}
+	}
+
+	private StoredImage download(Long productId, URI uri) throws IOException {
+		URLConnection connection = checkedUrl(uri).openConnection();
+		connection.setConnectTimeout(fetchTimeoutMillis);
+		connection.setReadTimeout(fetchTimeoutMillis);
+		if (connection instanceof HttpURLConnection http) {
+			// a redirect could point anywhere, including the hosts refused above
+			http.setInstanceFollowRedirects(false);
+			if (http.getResponseCode() != HttpURLConnection.HTTP_OK) {
+				http.disconnect();
+				throw new IOException("HTTP " + http.getResponseCode());
+			}
+		}
+		try (InputStream in = connection.getInputStream()) {
+			String extension = extension(remoteType(connection.getContentType()));
+			if (extension == null) {
+				throw new IOException("Not an image: " + connection.getContentType());
+			}
+			StoredImage image = write(cacheDir, productId, extension, in);
+			cached.put(productId, image);
+			return image;
+		}
+	}
+
+	/**
+	 * The URL the fetch will connect to. Its host is checked, not the URI's:
+	 * the URI has no host for names like {@code internal_svc} or an empty
+	 * authority, yet the URL still connects to them (or to localhost). Only
+	 * {@code file:} URLs, allowed in tests, may have no host.
+	 */
+	URL checkedUrl(URI uri) throws IOException {
+		URL url = uri.toURL();
+		if (!"file".equalsIgnoreCase(url.getProtocol())) {
+			if (url.getHost() == null || url.getHost().isBlank()) {
+				throw new IOException("No host in " + uri);
+			}
+			checkHost(url.getHost());
+		}
+		return url;
+	}
+
+	/**
+	 * The host must be listed (when a list is configured) and resolve only to
+	 * public addresses. The address is checked before connecting, so a DNS
+	 * answer that changes in between is not caught; the host list is what
+	 * closes that gap.
+	 */
+	private void checkHost(String host) throws IOException {
+		if (!remoteHosts.isEmpty() && !remoteHosts.contains(host.toLowerCase(Locale.ROOT))) {
+			throw new IOException("Host not allowed: " + host);
+		}
+		for (InetAddress address : InetAddress.getAllByName(host)) {
+			if (address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+					|| address.isAnyLocalAddress() || address.isMulticastAddress() || isUniqueLocal(address)) {
+				throw new IOException("Address not allowed: " + address.getHostAddress());
+			}
+		}
+	}
+
+	// fc00::/7, the IPv6 counterpart of the private IPv4 ranges
+	private static boolean isUniqueLocal(InetAddress address) {
+		return address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc;
+	}
+
+	/**
+	 * Copies to a temporary file first and moves it into place, so a partial
+	 * or oversized image is never visible.
+	 */
+	private StoredImage write(Path dir, Long productId, String extension, InputStream body) throws IOException {
+		Path tmp = Files.createTempFile(dir, productId + "-", ".tmp");
+		try {
+			long length = 0;
+			byte[] buffer = new byte[8192];
+			try (OutputStream out = Files.newOutputStream(tmp)) {
+				int n;
+				while ((n = body.read(buffer)) > 0) {
+					length += n;
+					if (length > maxFileBytes) {
+						throw new ImageTooLargeException("Image larger than " + maxFileBytes + " bytes");
+					}
+					out.write(buffer, 0, n);
+				}
+			}
+			Path target = dir.resolve(productId + "-" + Long.toString(System.nanoTime(), 36) + "." + extension);
+			Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+			return StoredImage.of(productId, target);
+		}
+		finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	private static List<StoredImage> scan(Path dir) throws IOException {
+		Map<Path, Instant> modified = new HashMap<>();
+		try (Stream<Path> files = Files.list(dir)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				if (file.getFileName().toString().endsWith(".tmp")) {
+					Files.deleteIfExists(file);
+				}
+				else if (StoredImage.productId(file) != null) {
+					modified.put(file, Files.getLastModifiedTime(file).toInstant());
+				}
+			}
+		}
+		return modified.keySet().stream()
+				.sorted(Comparator.comparing(modified::get))
+				.map(file -> StoredImage.of(StoredImage.productId(file), file))
+				.toList();
+	}
+
+	private static MediaType remoteType(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+		try {
+			return MediaType.parseMediaType(contentType);
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static String extension(MediaType type) {
+		if (type == null) {
+			return null;
+		}
+		for (Map.Entry<String, MediaType> entry : TYPES.entrySet()) {
+			if (entry.getValue().equalsTypeAndSubtype(type)) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	private void retire(StoredImage image) {
+		retired.put(image.path, Instant.now());
+	}
+
+	private static void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException e) {
+			logger.warn("Could not delete {}: {}", path, e.getMessage());
+		}
+	}
+
+	public static class StoredImage {
+
+		private final Long productId;
+		private final Path path;
+		private final MediaType mediaType;
+		private final long length;
+		private final Instant lastModified;
+
+		private StoredImage(Long productId, Path path, MediaType mediaType, long length, Instant lastModified) {
+			this.productId = productId;
+			this.path = path;
+			this.mediaType = mediaType;
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+
+		static StoredImage of(Long productId, Path path) {
+			try {
+				String name = path.getFileName().toString();
+				MediaType type = TYPES.get(name.substring(name.lastIndexOf('.') + 1));
+				return new StoredImage(productId, path, type, Files.size(path),
+						Files.getLastModifiedTime(path).toInstant());
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * The product id of a file named {@code <id>-<version>.<extension>},
+		 * or null for anything else.
+		 */
+		static Long productId(Path path) {
+			String name = path.getFileName().toString();
+			int dash = name.indexOf('-');
+			int dot = name.lastIndexOf('.');
+			if (dash <= 0 || dot < dash || !TYPES.containsKey(name.substring(dot + 1))) {
+				return null;
+			}
+			try {
+				return Long.valueOf(name.substring(0, dash));
+			}
+			catch (NumberFormatException e) {
+				return null;
+			}
+		}
+
+		public Path getPath() {
+			return path;
+		}
+
+		public MediaType getMediaType() {
+			return mediaType;
+		}
+
+		public long getLength() {
+			return length;
+		}
+
+		public Instant getLastModified() {
+			return lastModified;
+		}
+
+		public String getEtag() {
+			String name = path.getFileName().toString();
+			return "\"" + name.substring(0, name.lastIndexOf('.')) + "\"";
+		}
+	}
+}
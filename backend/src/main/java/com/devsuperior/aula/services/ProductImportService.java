@@ -0,0 +1,170 @@
+package com.devsuperior.aula.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.aula.entities.Dto.BatchImportResultDTO;
+import com.devsuperior.aula.entities.Dto.BatchItemResultDTO;
+import com.devsuperior.aula.entities.Dto.BatchItemResultDTO.Status;
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk product import. Hibernate cannot batch inserts of entities with
+ * IDENTITY ids, so this path writes with plain JDBC batches and reads the
+ * generated ids back from the batch. Each chunk of
+ * {@code app.import.batch-size} products is one transaction.
+ */
+@Service
+public class ProductImportService {
+
+	private static final String INSERT_PRODUCT =
+			"INSERT INTO tb_product (name, description, price, img_url, date, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+	private static final String INSERT_PRODUCT_CATEGORY =
+			"INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CategorySnapshot categorySnapshot;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+
+	public ProductImportService(PlatformTransactionManager transactionManager,
+			@Value("${app.import.batch-size:500}") int batchSize) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Reads either a JSON array or newline-delimited JSON objects and imports
+	 * them chunk by chunk, so the whole payload is never held in memory.
+	 */
+	public BatchImportResultDTO importProducts(InputStream body) {
+		BatchImportResultDTO result = new BatchImportResultDTO();
+		List<ProductDTO> chunk = new ArrayList<>(batchSize);
+		List<Integer> indexes = new ArrayList<>(batchSize);
+		int index = 0;
+		try (MappingIterator<ProductDTO> it = objectMapper.readerFor(ProductDTO.class).readValues(body)) {
+			while (it.hasNextValue()) {
+				ProductDTO dto = it.nextValue();
+				String error = validate(dto);
+				if (error != null) {
+					result.add(new BatchItemResultDTO(index, null, Status.REJECTED, error));
+				}
+				else {
+					chunk.add(dto);
+					indexes.add(index);
+				}
+				index++;
+				if (chunk.size() == batchSize) {
+					flush(chunk, indexes, result);
+				}
+			}
+		}
+		catch (IOException e) {
+			result.add(new BatchItemResultDTO(index, null, Status.REJECTED, "Malformed input: " + e.getMessage()));
+		}
+		flush(chunk, indexes, result);
+		result.getItems().sort(Comparator.comparing(BatchItemResultDTO::getIndex));
+		return result;
+	}
+
+	private String validate(ProductDTO dto) {
+		if (dto.getName() == null || dto.getName().isBlank()) {
+			return "Name is required";
+		}
+		for (CategoryDTO cat : dto.getCategories()) {
+			if (!categorySnapshot.contains(cat.getId())) {
+				return "Category not found " + cat.getId();
+			}
+		}
+		return null;
+	}
+
+	private void flush(List<ProductDTO> chunk, List<Integer> indexes, BatchImportResultDTO result) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		try {
+			List<Long> ids = transactionTemplate.execute(status -> insertChunk(chunk));
+			for (int i = 0; i < chunk.size(); i++) {
+				result.add(new BatchItemResultDTO(indexes.get(i), ids.get(i), Status.CREATED, null));
+			}
+		}
+		catch (DataAccessException e) {
+			for (Integer i : indexes) {
+				result.add(new BatchItemResultDTO(i, null, Status.FAILED, e.getMostSpecificCause().getMessage()));
+			}
+		}
+		chunk.clear();
+		indexes.clear();
+	}
+
+	private List<Long> insertChunk(List<ProductDTO> chunk) {
+		List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+			List<Long> keys = new ArrayList<>(chunk.size());
+			Timestamp now = Timestamp.from(Instant.now());
+			try (PreparedStatement ps = con.prepareStatement(INSERT_PRODUCT, new String[] { "id" })) {
+				for (ProductDTO dto : chunk) {
+					ps.setString(1, dto.getName());
+					ps.setString(2, dto.getDescription());
+					ps.setObject(3, dto.getPrice(), Types.DOUBLE);
+					ps.setString(4, dto.getImgUrl());
+					ps.setTimestamp(5, dto.getDate() == null ? null : Timestamp.from(dto.getDate()));
+					ps.setTimestamp(6, now);
+					ps.addBatch();
+				}
+				ps.executeBatch();
+				try (ResultSet rs = ps.getGeneratedKeys()) {
+					while (rs.next()) {
+						keys.add(rs.getLong(1));
+					}
+				}
+			}
+			return keys;
+		});
+
+		List<Object[]> links = new ArrayList<>();
+		for (int i = 0; i < chunk.size(); i++) {
+			for (CategoryDTO cat : chunk.get(i).getCategories()) {
+				links.add(new Object[] { ids.get(i), cat.getId() });
+			}
+		}
+		if (!links.isEmpty()) {
+			jdbcTemplate.batchUpdate(INSERT_PRODUCT_CATEGORY, links);
+		}
+		publisher.publishEvent(new ProductChangedEvent(ChangeType.CREATED, ids));
+		return ids;
+	}
+}
@@ -0,0 +1,209 @@
+package com.devsuperior.aula.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Already-serialized listing pages, kept both as plain JSON and gzipped, so a
+ * hit on a hot page/size/sort combination is a single buffer write. Only the
+ * first {@code app.cache.pages.max-page} pages are kept. Any product write
+ * drops every entry, since a single insert can shift all sorted pages.
+ */
+@Component
+public class ProductPageCache implements MeterBinder {
+
+	private static final int MAX_PAGE_SIZE = 100;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final Cache<String, SerializedPage> cache;
+	private final AtomicLong generation = new AtomicLong();
+	private final int maxPage;
+
+	public ProductPageCache(@Value("${app.cache.pages.max-size:200}") long maxSize,
+			@Value("${app.cache.pages.max-page:5}") int maxPage,
+			@Value("${app.cache.pages.ttl:10m}") Duration ttl) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		this.maxPage = maxPage;
+	}
+
+	public boolean accepts(Pageable pageable) {
+		return pageable.isPaged() && pageable.getPageNumber() < maxPage && pageable.getPageSize() <= MAX_PAGE_SIZE;
+	}
+
+	/**
+	 * A loader that started before a write may finish after the write has
+	 * cleared the cache; its entry carries the old generation and is discarded
+	 * instead of being served.
+	 */
+	public SerializedPage get(Pageable pageable, Supplier<Page<?>> loader) {
+		String key = pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+		long current = generation.get();
+		SerializedPage page = cache.get(key, k -> serialize(loader.get(), current));
+		if (page.generation != generation.get()) {
+			cache.asMap().remove(key, page);
+			page = serialize(loader.get(), generation.get());
+		}
+		return page;
+	}
+
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		cache.invalidateAll();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "product-pages");
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		invalidateAll();
+	}
+
+	private SerializedPage serialize(Page<?> page, long generation) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(page);
+			return new SerializedPage(json, gzip(json), generation);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize product page", e);
+		}
+	}
+
+	private static byte[] gzip(byte[] data) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * True when content negotiation would pick JSON for this Accept header,
+	 * the only format cached: JSON has the highest quality, and a wildcard
+	 * does not tie with a binary type (the more specific type would win).
+	 */
+	public static boolean prefersJson(String accept) {
+		if (accept == null || accept.isBlank()) {
+			return true;
+		}
+		List<MediaType> types;
+		try {
+			types = MediaType.parseMediaTypes(accept);
+		}
+		catch (InvalidMediaTypeException e) {
+			return false;
+		}
+		double json = 0.0;
+		double explicitJson = 0.0;
+		double other = 0.0;
+		for (MediaType type : types) {
+			double q = type.getQualityValue();
+			if (!type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+				other = Math.max(other, q);
+			}
+			else {
+				json = Math.max(json, q);
+				if (!type.isWildcardType() && !type.isWildcardSubtype()) {
+					explicitJson = Math.max(explicitJson, q);
+				}
+			}
+		}
+		return json > other || (json > 0.0 && json == other && explicitJson == json);
+	}
+
+	/**
+	 * True when the Accept-Encoding header allows gzip, either by name or
+	 * through "*". An explicit "gzip;q=0" wins over the wildcard.
+	 */
+	public static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		Double gzip = null;
+		Double any = null;
+		for (String part : acceptEncoding.split(",")) {
+			String[] tokens = part.trim().split(";");
+			String coding = tokens[0].trim();
+			if (coding.equalsIgnoreCase("gzip")) {
+				gzip = quality(tokens);
+			}
+			else if (coding.equals("*")) {
+				any = quality(tokens);
+			}
+		}
+		Double q = gzip != null ? gzip : any;
+		return q != null && q > 0.0;
+	}
+
+	private static double quality(String[] tokens) {
+		for (int i = 1; i < tokens.length; i++) {
+			String param = tokens[i].trim();
+			if (param.startsWith("q=")) {
+				try {
+					return Double.parseDouble(param.substring(2).trim());
+				}
+				catch (NumberFormatException e) {
+					return 0.0;
+				}
+			}
+		}
+		return 1.0;
+	}
+
+	public static class SerializedPage {
+
+		private final byte[] json;
+		private final byte[] gzip;
+		private final long generation;
+
+		SerializedPage(byte[] json, byte[] gzip, long generation) {
+			this.json = json;
+			this.gzip = gzip;
+			this.generation = generation;
+		}
+
+		public byte[] getJson() {
+			return json;
+		}
+
+		public byte[] getGzip() {
+			return gzip;
+		}
+	}
+}
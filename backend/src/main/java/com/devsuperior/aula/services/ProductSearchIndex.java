@@ -0,0 +1,160 @@
+package com.devsuperior.aula.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.aula.projections.ProductTextProjection;
+import com.devsuperior.aula.repositories.ProductRepository;
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+
+/**
+ * In-memory inverted index over product name and description. Terms are
+ * lower-cased and accent-folded ("Eletrônicos" and "eletronicos" are the same
+ * term), name occurrences weigh more than description ones, and results are
+ * ranked by a saturated tf-idf score. Queries match products that contain
+ * every term.
+ *
+ * <p>Built from the database when the application is ready and kept current
+ * from committed {@link ProductChangedEvent}s.
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final float NAME_WEIGHT = 3f;
+	private static final float SATURATION = 1.2f;
+
+	private final Map<String, Map<Long, Float>> postings = new ConcurrentHashMap<>();
+	private final Map<Long, Map<String, Float>> documents = new ConcurrentHashMap<>();
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	public static List<String> tokenize(String text) {
+		if (text == null || text.isBlank()) {
+			return List.of();
+		}
+		String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+		return Arrays.stream(SEPARATORS.split(folded.toLowerCase(Locale.ROOT)))
+				.filter(term -> !term.isEmpty())
+				.toList();
+	}
+
+	/**
+	 * Ids of the products matching every term of the query, best match first.
+	 */
+	public List<Long> search(String query) {
+		List<String> terms = tokenize(query).stream().distinct().toList();
+		if (terms.isEmpty()) {
+			return List.of();
+		}
+		List<Map<Long, Float>> lists = new ArrayList<>(terms.size());
+		for (String term : terms) {
+			Map<Long, Float> list = postings.get(term);
+			if (list == null || list.isEmpty()) {
+				return List.of();
+			}
+			lists.add(list);
+		}
+		lists.sort(Comparator.comparingInt(Map::size));
+
+		int total = Math.max(documents.size(), 1);
+		Map<Long, Float> scores = new HashMap<>();
+		for (Map.Entry<Long, Float> posting : lists.get(0).entrySet()) {
+			float score = 0f;
+			for (Map<Long, Float> list : lists) {
+				Float weight = list.get(posting.getKey());
+				if (weight == null) {
+					score = -1f;
+					break;
+				}
+				float idf = (float) Math.log(1.0 + (double) total / list.size());
+				score += idf * weight / (weight + SATURATION);
+			}
+			if (score > 0f) {
+				scores.put(posting.getKey(), score);
+			}
+		}
+		return scores.entrySet().stream()
+				.sorted(Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+
+	public synchronized void index(Long id, String name, String description) {
+		remove(id);
+		Map<String, Float> terms = new HashMap<>();
+		tokenize(name).forEach(term -> terms.merge(term, NAME_WEIGHT, Float::sum));
+		tokenize(description).forEach(term -> terms.merge(term, 1f, Float::sum));
+		terms.forEach((term, weight) -> postings.computeIfAbsent(term, k -> new ConcurrentHashMap<>()).put(id, weight));
+		documents.put(id, Collections.unmodifiableMap(terms));
+	}
+
+	public synchronized void remove(Long id) {
+		Map<String, Float> terms = documents.remove(id);
+		if (terms == null) {
+			return;
+		}
+		for (String term : terms.keySet()) {
+			postings.computeIfPresent(term, (k, list) -> {
+				list.remove(id);
+				return list.isEmpty() ? null : list;
+			});
+		}
+	}
+
+	public int size() {
+		return documents.size();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		long start = System.currentTimeMillis();
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+		template.executeWithoutResult(status -> {
+			try (Stream<ProductTextProjection> stream = repository.streamSearchText()) {
+				stream.forEach(x -> index(x.getId(), x.getName(), x.getDescription()));
+			}
+		});
+		logger.info("Product search index built with {} products in {} ms", size(), System.currentTimeMillis() - start);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.getType() == ChangeType.DELETED) {
+			event.getProductIds().forEach(this::remove);
+			return;
+		}
+		for (ProductTextProjection x : repository.findSearchText(event.getProductIds())) {
+			index(x.getId(), x.getName(), x.getDescription());
+		}
+	}
+}
@@ -1,46 +1,155 @@
 package com.devsuperior.aula.services;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.devsuperior.aula.entities.Category;
 import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.Dto.BulkDeleteResultDTO;
+import com.devsuperior.aula.entities.Dto.CacheStatsDTO;
 import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.CursorPageDTO;
 import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductFilterDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
 import com.devsuperior.aula.repositories.CategoryRepository;
 import com.devsuperior.aula.repositories.ProductRepository;
+import com.devsuperior.aula.repositories.ProductTombstoneRepository;
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
 import com.devsuperior.aula.services.exceptions.DatabaseException;
 import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
+@Timed(value = "catalog.service", histogram = true)
 public class ProductService {
 
+	private static final int BULK_CHUNK = 1000;
+
 	@Autowired
 	private ProductRepository repository;
 	
 	@Autowired
 	private CategoryRepository categoryRepository;
 	
+	@Autowired
+	private ProductTombstoneRepository tombstoneRepository;
+	
+	@Autowired
+	private CategorySnapshot categorySnapshot;
+	
+	@Autowired
+	private ProductCache cache;
+	
+	@Autowired
+	private ProductSearchIndex searchIndex;
+	
+	@Autowired
+	private ApplicationEventPublisher publisher;
+	
 	@Transactional(readOnly = true)
-	public Page<ProductDTO> findAllPaged(Pageable pageable) {
-		Page<Product> list = repository.findAll(pageable);
-		return list.map(x -> new ProductDTO(x));
+	public Page<ProductSummaryDTO> findAllPaged(Pageable pageable) {
+		return repository.findAllSummaries(pageable);
 	}
 
 	@Transactional(readOnly = true)
+	public Page<ProductSummaryDTO> findAllPaged(ProductFilterDTO filter, Pageable pageable) {
+		if (filter.isEmpty()) {
+			return findAllPaged(pageable);
+		}
+		return repository.findFiltered(filter, pageable);
+	}
+
+	/**
+	 * Same page as {@link #findAllPaged(ProductFilterDTO, Pageable)} but with
+	 * categories, loaded in a fixed number of statements: the page (plus its
+	 * count) and then one query for the category links of all ids of the page,
+	 * resolved against {@link CategorySnapshot}.
+	 */
+	@Transactional(readOnly = true)
+	public Page<ProductSummaryDTO> findAllPagedWithCategories(ProductFilterDTO filter, Pageable pageable) {
+		Page<ProductSummaryDTO> page = findAllPaged(filter, pageable);
+		if (page.hasContent()) {
+			List<Long> ids = page.map(ProductSummaryDTO::getId).getContent();
+			Map<Long, List<CategoryDTO>> categories = categorySnapshot.groupByProduct(repository.findCategoryLinks(ids));
+			page.forEach(x -> x.setCategories(categories.getOrDefault(x.getId(), new ArrayList<>())));
+		}
+		return page;
+	}
+
+	@Transactional(readOnly = true)
+	public CursorPageDTO<ProductSummaryDTO> findAllAfter(String cursor, int size) {
+		Slice<ProductSummaryDTO> slice = repository.findNextPage(KeysetCursor.decode(cursor), PageRequest.of(0, size));
+		List<ProductSummaryDTO> content = slice.getContent();
+		String next = slice.hasNext() ? KeysetCursor.encode(content.get(content.size() - 1).getId()) : null;
+		return new CursorPageDTO<>(content, size, next);
+	}
+
+	/**
+	 * Full-text search ranked by {@link ProductSearchIndex}; only the ids of the
+	 * requested page are loaded from the database.
+	 */
+	@Transactional(readOnly = true)
+	public Page<ProductSummaryDTO> search(String query, Pageable pageable) {
+		List<Long> ids = searchIndex.search(query);
+		int from = (int) Math.min(pageable.getOffset(), ids.size());
+		int to = Math.min(from + pageable.getPageSize(), ids.size());
+		List<Long> pageIds = ids.subList(from, to);
+		List<ProductSummaryDTO> content = pageIds.isEmpty() ? List.of() : repository.findSummaries(pageIds).stream()
+				.sorted(Comparator.comparingInt(x -> pageIds.indexOf(x.getId())))
+				.toList();
+		return new PageImpl<>(content, pageable, ids.size());
+	}
+
+	/**
+	 * Served from {@link ProductCache}; a miss loads the product and its
+	 * categories in a single query, so no transaction is opened here.
+	 */
 	public ProductDTO findById(Long id) {
-		Optional<Product> obj = repository.findById(id);
-		Product entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
-		return new ProductDTO(entity, entity.getCategories());
+		return cache.get(id, key -> {
+			Optional<Product> obj = repository.findWithCategoriesById(key);
+			Product entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+			return new ProductDTO(entity, entity.getCategories());
+		});
+	}
+
+	/**
+	 * Version of the {@link #findById} representation: the product's
+	 * {@code @Version} combined with the category snapshot's, since category
+	 * names are part of the body. Only the version is loaded and cached, never
+	 * the DTO.
+	 */
+	public ResourceVersion findVersion(Long id) {
+		ResourceVersion own = cache.getVersion(id, key -> repository.findVersionById(key)
+				.map(x -> new ResourceVersion(Long.toString(x.getVersion()), x.getUpdatedAt()))
+				.orElseThrow(() -> new ResourceNotFoundException("Entity not found")));
+		return own.and(categorySnapshot.version());
+	}
+
+	public CacheStatsDTO cacheStats() {
+		return cache.stats();
 	}
 
 	@Transactional
@@ -48,15 +157,30 @@ public class ProductService {
 		Product entity = new Product();
 		copyDtoToEntity(dto, entity);
 		entity = repository.save(entity);
+		publisher.publishEvent(new ProductChangedEvent(ChangeType.CREATED, entity.getId()));
 		return new ProductDTO(entity);
 	}
 
 	@Transactional
 	public ProductDTO update(Long id, ProductDTO dto) {
+		return update(id, dto, null);
+	}
+	
+	/**
+	 * Updates the product only if it is still at {@code expectedVersion} (any
+	 * version when null). A writer that commits in between is detected by
+	 * {@code @Version} when this transaction flushes.
+	 */
+	@Transactional
+	public ProductDTO update(Long id, ProductDTO dto, Long expectedVersion) {
 		try {
 			Product entity = repository.getReferenceById(id);
+			ResourceVersion.checkExpected(expectedVersion, entity.getVersion());
 			copyDtoToEntity(dto, entity);
+			// @PreUpdate does not fire when only the category links change
+			entity.touch();
 			entity = repository.save(entity);
+			publisher.publishEvent(new ProductChangedEvent(ChangeType.UPDATED, id));
 			return new ProductDTO(entity);
 		}
 		catch (EntityNotFoundException e) {
@@ -64,17 +188,58 @@ public class ProductService {
 		}		
 	}
 	
-	@Transactional(propagation = Propagation.SUPPORTS)
+	/**
+	 * Writes the product's tombstone in the same transaction. Flushes inside
+	 * the try so an integrity violation is translated here, not at commit.
+	 */
+	@Transactional
 	public void delete(Long id) {
 		if (!repository.existsById(id)) {
 			throw new ResourceNotFoundException("Recurso não encontrado");
 		}
 		try {
+			tombstoneRepository.insertForProducts(List.of(id), Instant.now());
 			repository.deleteById(id);
+			repository.flush();
+			publisher.publishEvent(new ProductChangedEvent(ChangeType.DELETED, id));
+		}
+		catch (DataIntegrityViolationException e) {
+			throw new DatabaseException("Integrity violation");
+		}
+	}
+	
+	/**
+	 * Deletes the products and their category links, and writes their
+	 * tombstones, with set-based statements, {@value #BULK_CHUNK} ids per
+	 * statement, in one transaction. Ids that do
+	 * not exist are reported as missing instead of failing the request.
+	 * Nothing but the category links references a product, so no id fails on
+	 * integrity today; a violation rolls the whole request back.
+	 */
+	@Transactional
+	public BulkDeleteResultDTO deleteAll(Collection<Long> ids) {
+		BulkDeleteResultDTO result = new BulkDeleteResultDTO();
+		List<Long> distinct = List.copyOf(new LinkedHashSet<>(ids));
+		try {
+			for (int i = 0; i < distinct.size(); i += BULK_CHUNK) {
+				List<Long> chunk = distinct.subList(i, Math.min(i + BULK_CHUNK, distinct.size()));
+				Set<Long> existing = new HashSet<>(repository.findExistingIds(chunk));
+				List<Long> deleted = chunk.stream().filter(existing::contains).toList();
+				if (!deleted.isEmpty()) {
+					tombstoneRepository.insertForProducts(deleted, Instant.now());
+					repository.deleteAllByIdIn(deleted);
+				}
+				result.getDeleted().addAll(deleted);
+				chunk.stream().filter(id -> !existing.contains(id)).forEach(result.getMissing()::add);
+			}
 		}
 		catch (DataIntegrityViolationException e) {
 			throw new DatabaseException("Integrity violation");
 		}
+		if (!result.getDeleted().isEmpty()) {
+			publisher.publishEvent(new ProductChangedEvent(ChangeType.DELETED, result.getDeleted()));
+		}
+		return result;
 	}
 	
 	private void copyDtoToEntity(ProductDTO dto, Product entity) {
@@ -87,6 +252,9 @@ public class ProductService {
 		
 		entity.getCategories().clear();
 		for (CategoryDTO catDto : dto.getCategories()) {
+			if (!categorySnapshot.contains(catDto.getId())) {
+				throw new ResourceNotFoundException("Category not found " + catDto.getId());
+			}
 			Category category = categoryRepository.getReferenceById(catDto.getId());
 			entity.getCategories().add(category);			
 		}
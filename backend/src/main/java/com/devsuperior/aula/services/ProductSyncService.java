@@ -0,0 +1,144 @@
+package com.devsuperior.aula.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.ProductTombstone;
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.ProductChangesDTO;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductTombstoneDTO;
+import com.devsuperior.aula.repositories.ProductRepository;
+import com.devsuperior.aula.repositories.ProductTombstoneRepository;
+import com.devsuperior.aula.services.KeysetCursor.Position;
+import com.devsuperior.aula.services.exceptions.ChangesExpiredException;
+
+/**
+ * Incremental sync for catalog mirrors: products updated and deleted after a
+ * point in time, in {@code (timestamp, id)} order, so a page boundary never
+ * splits products that share a timestamp.
+ * <p>
+ * A product's {@code updatedAt} is taken when its transaction flushes, not
+ * when it commits, so a page stops {@code app.sync.safety-lag} before now:
+ * a write that commits within that lag still shows up in the next sync.
+ * Category renames are not reported here; mirrors re-read
+ * {@code /categories}, which is small and supports conditional GETs.
+ */
+@Service
+public class ProductSyncService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSyncService.class);
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private ProductTombstoneRepository tombstoneRepository;
+
+	@Autowired
+	private CategorySnapshot categorySnapshot;
+
+	private final Duration safetyLag;
+	private final Duration retention;
+	private final Clock clock;
+
+	@Autowired
+	public ProductSyncService(@Value("${app.sync.safety-lag:5s}") Duration safetyLag,
+			@Value("${app.sync.tombstone-retention:30d}") Duration retention) {
+		this(safetyLag, retention, Clock.systemUTC());
+	}
+
+	ProductSyncService(Duration safetyLag, Duration retention, Clock clock) {
+		this.safetyLag = safetyLag;
+		this.retention = retention;
+		this.clock = clock;
+	}
+
+	/**
+	 * Changes after {@code since}, or the page after {@code cursor}; with
+	 * neither, every product (a full sync). Fails with
+	 * {@link ChangesExpiredException} when deletes after {@code since} may
+	 * already have been purged. Only {@code since} is checked: a cursor holds
+	 * the last change returned, which in a full sync can be a product last
+	 * modified long before the retention.
+	 */
+	@Transactional(readOnly = true)
+	public ProductChangesDTO findChanges(Instant since, String cursor, int size) {
+		Instant now = clock.instant();
+		Position after = cursor != null ? KeysetCursor.decodePosition(cursor)
+				: new Position(since != null ? since : Instant.EPOCH, 0L);
+		if (cursor == null && since != null && since.isBefore(now.minus(retention))) {
+			throw new ChangesExpiredException("Deletes before " + now.minus(retention)
+					+ " are no longer kept, sync again without since");
+		}
+		Instant until = now.minus(safetyLag);
+		PageRequest limit = PageRequest.of(0, size + 1);
+		List<Change> changes = new ArrayList<>();
+		repository.findUpdatedAfter(after.getTime(), after.getId(), until, limit)
+				.forEach(x -> changes.add(new Change(x.getUpdatedAt(), x.getId(), x, null)));
+		tombstoneRepository.findDeletedAfter(after.getTime(), after.getId(), until, limit)
+				.forEach(x -> changes.add(new Change(x.getDeletedAt(), x.getProductId(), null, x)));
+		changes.sort(Comparator.comparing((Change x) -> x.time).thenComparingLong(x -> x.id));
+
+		List<Change> page = changes.subList(0, Math.min(size, changes.size()));
+		String next = changes.size() > size
+				? KeysetCursor.encode(new Position(page.get(page.size() - 1).time, page.get(page.size() - 1).id))
+				: null;
+		ProductChangesDTO result = new ProductChangesDTO(until, next);
+		List<Long> updatedIds = new ArrayList<>();
+		for (Change change : page) {
+			if (change.product != null) {
+				result.getUpdated().add(new ProductDTO(change.product));
+				updatedIds.add(change.id);
+			}
+			else {
+				result.getDeleted().add(new ProductTombstoneDTO(change.tombstone));
+			}
+		}
+		if (!updatedIds.isEmpty()) {
+			Map<Long, List<CategoryDTO>> categories = categorySnapshot.groupByProduct(repository.findCategoryLinks(updatedIds));
+			result.getUpdated().forEach(x -> x.getCategories().addAll(categories.getOrDefault(x.getId(), List.of())));
+		}
+		return result;
+	}
+
+	@Scheduled(initialDelayString = "${app.sync.purge-interval:PT1H}", fixedDelayString = "${app.sync.purge-interval:PT1H}")
+	@Transactional
+	public int purgeTombstones() {
+		int purged = tombstoneRepository.deleteAllDeletedBefore(clock.instant().minus(retention));
+		if (purged > 0) {
+			logger.info("Purged {} product tombstones older than {}", purged, retention);
+		}
+		return purged;
+	}
+
+	private static class Change {
+
+		private final Instant time;
+		private final long id;
+		private final Product product;
+		private final ProductTombstone tombstone;
+
+		Change(Instant time, long id, Product product, ProductTombstone tombstone) {
+			this.time = time;
+			this.id = id;
+			this.product = product;
+			this.tombstone = tombstone;
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package com.devsuperior.aula.services;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.WriteStatusDTO;
+import com.devsuperior.aula.entities.Dto.WriteStatusDTO.Status;
+import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.aula.services.exceptions.ServiceUnavailableException;
+import com.devsuperior.aula.services.exceptions.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind queue for product inserts and updates sent with
+ * {@code Prefer: respond-async}. Writes are partitioned by product id over
+ * {@code app.write-behind.workers} threads, so writes to one product apply in
+ * order, and an unconditional update still waiting in the queue absorbs later
+ * unconditional updates of the same product. An update with an expected
+ * version (If-Match) is never merged: it queues behind the pending write and
+ * is checked against the version that write leaves. Each worker applies up to
+ * {@code app.write-behind.batch-size} writes per transaction, at most one per
+ * product, since {@code @Version} only moves when the transaction flushes;
+ * when a batch fails its writes are retried one transaction each, so a single
+ * bad write does not fail the others.
+ */
+@Service
+public class ProductWriteQueue implements MeterBinder {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductWriteQueue.class);
+
+	@Autowired
+	private ProductService service;
+
+	private final TransactionTemplate transactionTemplate;
+	private final Cache<String, WriteStatusDTO> statuses;
+	private final Partition[] partitions;
+	private final int batchSize;
+	private ExecutorService workers;
+	private volatile boolean stopped;
+
+	public ProductWriteQueue(PlatformTransactionManager transactionManager,
+			@Value("${app.write-behind.workers:2}") int workers,
+			@Value("${app.write-behind.queue-capacity:10000}") int capacity,
+			@Value("${app.write-behind.batch-size:100}") int batchSize,
+			@Value("${app.write-behind.status-ttl:10m}") Duration statusTtl) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		// statuses outlive their writes by the TTL, so allow a few queues' worth
+		this.statuses = Caffeine.newBuilder()
+				.maximumSize(4L * Math.max(capacity, 1))
+				.expireAfterWrite(statusTtl)
+				.build();
+		this.partitions = new Partition[workers];
+		for (int i = 0; i < workers; i++) {
+			partitions[i] = new Partition(Math.max(1, capacity / workers));
+		}
+		this.batchSize = batchSize;
+	}
+
+	@PostConstruct
+	public void start() {
+		workers = Executors.newFixedThreadPool(partitions.length, new CustomizableThreadFactory("write-behind-"));
+		for (Partition partition : partitions) {
+			workers.execute(() -> drain(partition));
+		}
+	}
+
+	/**
+	 * Stops taking new writes and lets the workers flush what is queued.
+	 */
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		stopped = true;
+		for (Partition partition : partitions) {
+			synchronized (partition) {
+				partition.notifyAll();
+			}
+		}
+		workers.shutdown();
+		if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+			logger.warn("Write-behind queue stopped with {} writes pending", pending());
+		}
+	}
+
+	public WriteStatusDTO submitInsert(ProductDTO dto) {
+		String trackingId = UUID.randomUUID().toString();
+		return submit(trackingId, new PendingWrite("new:" + trackingId, null, dto, null));
+	}
+
+	public WriteStatusDTO submitUpdate(Long id, ProductDTO dto, Long expectedVersion) {
+		return submit(UUID.randomUUID().toString(), new PendingWrite("id:" + id, id, dto, expectedVersion));
+	}
+
+	public WriteStatusDTO findStatus(String trackingId) {
+		WriteStatusDTO status = statuses.getIfPresent(trackingId);
+		if (status == null) {
+			throw new ResourceNotFoundException("Tracking id not found " + trackingId);
+		}
+		return status;
+	}
+
+	public int pending() {
+		int pending = 0;
+		for (Partition partition : partitions) {
+			synchronized (partition) {
+				pending += partition.writes.size();
+			}
+		}
+		return pending;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("catalog.write-behind.pending", this, ProductWriteQueue::pending)
+				.description("Product writes accepted but not yet committed")
+				.register(registry);
+	}
+
+	private WriteStatusDTO submit(String trackingId, PendingWrite write) {
+		Partition partition = partitions[Math.floorMod(write.key.hashCode(), partitions.length)];
+		WriteStatusDTO status = new WriteStatusDTO(trackingId, Status.QUEUED, write.productId, null);
+		synchronized (partition) {
+			if (stopped) {
+				throw new ServiceUnavailableException("Write queue is shutting down");
+			}
+			PendingWrite queued = partition.last.get(write.key);
+			if (queued != null && queued.expectedVersion == null && write.expectedVersion == null) {
+				queued.dto = write.dto;
+			}
+			else if (partition.writes.size() >= partition.capacity) {
+				throw new TooManyRequestsException("Write queue is full");
+			}
+			else {
+				queued = write;
+				partition.writes.add(queued);
+				partition.last.put(write.key, queued);
+				partition.notify();
+			}
+			queued.trackingIds.add(trackingId);
+			statuses.put(trackingId, status);
+		}
+		return status;
+	}
+
+	private void drain(Partition partition) {
+		while (true) {
+			List<PendingWrite> batch = new ArrayList<>(batchSize);
+			synchronized (partition) {
+				while (partition.writes.isEmpty() && !stopped) {
+					try {
+						partition.wait();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+				if (partition.writes.isEmpty()) {
+					return;
+				}
+				Set<String> keys = new HashSet<>();
+				while (!partition.writes.isEmpty() && batch.size() < batchSize
+						&& keys.add(partition.writes.peekFirst().key)) {
+					PendingWrite write = partition.writes.pollFirst();
+					partition.last.remove(write.key, write);
+					batch.add(write);
+				}
+			}
+			flush(batch);
+		}
+	}
+
+	private void flush(List<PendingWrite> batch) {
+		try {
+			List<ProductDTO> results = transactionTemplate.execute(status -> batch.stream().map(this::apply).toList());
+			for (int i = 0; i < batch.size(); i++) {
+				complete(batch.get(i), Status.COMPLETED, results.get(i).getId(), null);
+			}
+		}
+		catch (RuntimeException e) {
+			if (batch.size() == 1) {
+				complete(batch.get(0), Status.FAILED, batch.get(0).productId, e.getMessage());
+				return;
+			}
+			batch.forEach(write -> flush(List.of(write)));
+		}
+	}
+
+	private ProductDTO apply(PendingWrite write) {
+		if (write.productId == null) {
+			return service.insert(write.dto);
+		}
+		return service.update(write.productId, write.dto, write.expectedVersion);
+	}
+
+	private void complete(PendingWrite write, Status status, Long productId, String message) {
+		for (String trackingId : write.trackingIds) {
+			statuses.put(trackingId, new WriteStatusDTO(trackingId, status, productId, message));
+		}
+	}
+
+	private static class Partition {
+
+		// queue order is the apply order; a coalesced update keeps its place
+		private final Deque<PendingWrite> writes = new ArrayDeque<>();
+		// the last queued write of each product, the only one later updates may join
+		private final Map<String, PendingWrite> last = new HashMap<>();
+		private final int capacity;
+
+		Partition(int capacity) {
+			this.capacity = capacity;
+		}
+	}
+
+	private static class PendingWrite {
+
+		private final String key;
+		private final Long productId;
+		private final Long expectedVersion;
+		private final List<String> trackingIds = new ArrayList<>(1);
+		private volatile ProductDTO dto;
+
+		PendingWrite(String key, Long productId, ProductDTO dto, Long expectedVersion) {
+			this.key = key;
+			this.productId = productId;
+			this.dto = dto;
+			this.expectedVersion = expectedVersion;
+		}
+	}
+}
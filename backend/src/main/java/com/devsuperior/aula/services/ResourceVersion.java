@@ -0,0 +1,77 @@
+package com.devsuperior.aula.services;
+
+import java.time.Instant;
+
+import com.devsuperior.aula.services.exceptions.PreconditionFailedException;
+
+/**
+ * Version of a resource as seen by HTTP conditional requests: a weak entity
+ * tag plus the last modification time, both derived from stored timestamps so
+ * they are stable across application instances.
+ */
+public class ResourceVersion {
+
+	private final String tag;
+	private final Instant lastModified;
+
+	public ResourceVersion(String tag, Instant lastModified) {
+		this.tag = tag;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Version of a resource whose representation also embeds {@code other}.
+	 */
+	public ResourceVersion and(ResourceVersion other) {
+		Instant latest = lastModified.isAfter(other.lastModified) ? lastModified : other.lastModified;
+		return new ResourceVersion(tag + "-" + other.tag, latest);
+	}
+
+	/**
+	 * Entity version a client expects, taken from an If-Match header; null when
+	 * the header is absent or {@code *}. Only the leading component of the tag
+	 * is the entity's own version, the rest describes embedded resources, so a
+	 * category rename does not fail writes to the products that embed it.
+	 */
+	public static Long expectedVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag = ifMatch.trim();
+		if (tag.startsWith("W/")) {
+			tag = tag.substring(2);
+		}
+		if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"") || tag.contains(",")) {
+			throw new PreconditionFailedException("If-Match must carry a single entity tag");
+		}
+		tag = tag.substring(1, tag.length() - 1);
+		int dash = tag.indexOf('-');
+		try {
+			return Long.valueOf(dash < 0 ? tag : tag.substring(0, dash));
+		}
+		catch (NumberFormatException e) {
+			throw new PreconditionFailedException("Unknown entity tag " + ifMatch);
+		}
+	}
+
+	/**
+	 * Fails unless the current version is the one the client expects.
+	 */
+	public static void checkExpected(Long expected, Long current) {
+		if (expected != null && !expected.equals(current)) {
+			throw new PreconditionFailedException("Expected version " + expected + " but was " + current);
+		}
+	}
+
+	public String getTag() {
+		return tag;
+	}
+
+	public String getEtag() {
+		return "W/\"" + tag + "\"";
+	}
+
+	public Instant getLastModified() {
+		return lastModified;
+	}
+}
@@ -0,0 +1,30 @@
+package com.devsuperior.aula.services.events;
+
+import java.util.List;
+
+/**
+ * Published by {@link com.devsuperior.aula.services.CategoryService} on every
+ * write, and once for a whole bulk delete.
+ */
+public class CategoryChangedEvent {
+
+	private final ChangeType type;
+	private final List<Long> categoryIds;
+
+	public CategoryChangedEvent(ChangeType type, Long categoryId) {
+		this(type, List.of(categoryId));
+	}
+
+	public CategoryChangedEvent(ChangeType type, List<Long> categoryIds) {
+		this.type = type;
+		this.categoryIds = List.copyOf(categoryIds);
+	}
+
+	public ChangeType getType() {
+		return type;
+	}
+
+	public List<Long> getCategoryIds() {
+		return categoryIds;
+	}
+}
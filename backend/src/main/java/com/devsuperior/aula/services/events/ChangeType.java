@@ -0,0 +1,7 @@
+package com.devsuperior.aula.services.events;
+
+public enum ChangeType {
+	CREATED,
+	UPDATED,
+	DELETED;
+}
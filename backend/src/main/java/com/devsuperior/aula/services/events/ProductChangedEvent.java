@@ -0,0 +1,32 @@
+package com.devsuperior.aula.services.events;
+
+import java.util.List;
+
+/**
+ * Published by {@link com.devsuperior.aula.services.ProductService} on every
+ * write, and once per chunk by bulk writes. Listeners that keep derived state
+ * (caches, indexes) should consume it with {@code @TransactionalEventListener}
+ * so they only see committed changes.
+ */
+public class ProductChangedEvent {
+
+	private final ChangeType type;
+	private final List<Long> productIds;
+
+	public ProductChangedEvent(ChangeType type, Long productId) {
+		this(type, List.of(productId));
+	}
+
+	public ProductChangedEvent(ChangeType type, List<Long> productIds) {
+		this.type = type;
+		this.productIds = List.copyOf(productIds);
+	}
+
+	public ChangeType getType() {
+		return type;
+	}
+
+	public List<Long> getProductIds() {
+		return productIds;
+	}
+}
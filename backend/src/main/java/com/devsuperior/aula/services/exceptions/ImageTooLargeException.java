@@ -0,0 +1,9 @@
+package com.devsuperior.aula.services.exceptions;
+
+public class ImageTooLargeException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public ImageTooLargeException(String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,9 @@
+package com.devsuperior.aula.services.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public InvalidCursorException(String msg) {
+		super(msg);
+	}
+}
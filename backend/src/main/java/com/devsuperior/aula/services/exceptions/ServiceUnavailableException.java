@@ -0,0 +1,9 @@
+package com.devsuperior.aula.services.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public ServiceUnavailableException(String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,20 @@
+package com.devsuperior.aula.services.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private final long retryAfterSeconds;
+
+	public TooManyRequestsException(String msg) {
+		this(msg, 1L);
+	}
+
+	public TooManyRequestsException(String msg, long retryAfterSeconds) {
+		super(msg);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
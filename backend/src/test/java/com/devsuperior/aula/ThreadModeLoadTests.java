@@ -0,0 +1,165 @@
+package com.devsuperior.aula;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Throughput and latency of the catalog under many concurrent clients, once
+ * on Tomcat's platform-thread pool and once on virtual threads. Excluded from
+ * the default build; run with {@code mvn -Pload-test test} on JDK 21.
+ */
+@Tag("load")
+public class ThreadModeLoadTests {
+
+	private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 500);
+	private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup", 5));
+	private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 20));
+	private static final String[] NAMES = { "a", "e", "o", "pc" };
+
+	@Test
+	public void compareThreadModes() throws Exception {
+		Assumptions.assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+
+		Result platform = run(false);
+		Result virtual = run(true);
+
+		System.out.printf("%n%-10s %12s %10s %10s %10s %8s%n", "mode", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+		System.out.println(platform.format("platform"));
+		System.out.println(virtual.format("virtual"));
+
+		Assertions.assertTrue(platform.count() > 0);
+		Assertions.assertTrue(virtual.count() > 0);
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AulaApplication.class)
+				.run("--server.port=0",
+						"--app.threads.virtual.enabled=" + virtualThreads,
+						"--app.admission.rate-limit.enabled=false",
+						"--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads,
+						"--spring.jpa.show-sql=false",
+						"--spring.main.banner-mode=off",
+						"--logging.level.root=WARN")) {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient client = HttpClient.newBuilder()
+					.executor(Executors.newFixedThreadPool(16))
+					.connectTimeout(Duration.ofSeconds(10))
+					.build();
+			drive(client, port, WARMUP);
+			return drive(client, port, DURATION);
+		}
+	}
+
+	private Result drive(HttpClient client, int port, Duration duration) throws Exception {
+		ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+		long deadline = System.nanoTime() + duration.toNanos();
+		List<Future<Result>> futures = new ArrayList<>();
+		for (int i = 0; i < CONCURRENCY; i++) {
+			futures.add(workers.submit(() -> {
+				Result result = new Result();
+				while (System.nanoTime() < deadline) {
+					HttpRequest request = HttpRequest.newBuilder(URI.create(nextUri(port)))
+							.timeout(Duration.ofSeconds(30))
+							.GET()
+							.build();
+					long start = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						result.record(System.nanoTime() - start, response.statusCode() == 200);
+					}
+					catch (Exception e) {
+						result.record(System.nanoTime() - start, false);
+					}
+				}
+				return result;
+			}));
+		}
+		Result total = new Result();
+		for (Future<Result> future : futures) {
+			total.merge(future.get());
+		}
+		workers.shutdown();
+		total.seconds = duration.toNanos() / 1e9;
+		return total;
+	}
+
+	/**
+	 * Only requests that reach the database: filtered listings, pages past
+	 * the hot-page cache and listings with categories. Unfiltered first pages
+	 * and categories are served from memory and would not block on JDBC.
+	 */
+	private static String nextUri(int port) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String products = "http://localhost:" + port + "/products?";
+		switch (random.nextInt(3)) {
+		case 0:
+			return products + "name=" + NAMES[random.nextInt(NAMES.length)] + "&categoryId=" + (random.nextInt(3) + 1);
+		case 1:
+			return products + "size=2&page=" + (5 + random.nextInt(8)) + "&sort=name";
+		default:
+			return products + "size=10&page=" + random.nextInt(3) + "&withCategories=true";
+		}
+	}
+
+	private static final class Result {
+
+		private long[] latencies = new long[1024];
+		private int count;
+		private int errors;
+		private double seconds;
+
+		private void record(long nanos, boolean ok) {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = nanos;
+			if (!ok) {
+				errors++;
+			}
+		}
+
+		private void merge(Result other) {
+			for (int i = 0; i < other.count; i++) {
+				record(other.latencies[i], true);
+			}
+			errors += other.errors;
+		}
+
+		private int count() {
+			return count;
+		}
+
+		private String format(String mode) {
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			return String.format("%-10s %12.0f %10.1f %10.1f %10.1f %8d", mode, count / seconds,
+					percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6,
+					errors);
+		}
+
+		private static double percentile(long[] sorted, double p) {
+			if (sorted.length == 0) {
+				return 0.0;
+			}
+			return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+		}
+	}
+}
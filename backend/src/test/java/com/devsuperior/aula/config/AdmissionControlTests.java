@@ -0,0 +1,68 @@
+package com.devsuperior.aula.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.devsuperior.aula.services.exceptions.TooManyRequestsException;
+
+@SpringBootTest(properties = {
+		"app.admission.enabled=true",
+		"app.admission.rate-limit.enabled=true",
+		"app.admission.rate-limit.requests-per-second=0.1",
+		"app.admission.rate-limit.burst=2",
+		"app.admission.rate-limit.client-header=X-Api-Key" })
+@AutoConfigureMockMvc
+public class AdmissionControlTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void requestsOverTheBurstShouldReturnTooManyRequestsPerClient() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(get("/categories/1").header("X-Api-Key", "crawler").accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+		}
+
+		mockMvc.perform(get("/categories/1").header("X-Api-Key", "crawler").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isTooManyRequests())
+		.andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+		mockMvc.perform(get("/categories/1").header("X-Api-Key", "mirror").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk());
+	}
+
+	@Test
+	public void unconfiguredClientHeaderShouldNotGiveEachKeyItsOwnBucket() {
+		RateLimitInterceptor interceptor = new RateLimitInterceptor(0.1, 1, "", 100);
+		MockHttpServletRequest first = new MockHttpServletRequest("GET", "/products");
+		first.addHeader("X-Api-Key", "random-1");
+		MockHttpServletRequest second = new MockHttpServletRequest("GET", "/products");
+		second.addHeader("X-Api-Key", "random-2");
+
+		Assertions.assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+		Assertions.assertThrows(TooManyRequestsException.class,
+				() -> interceptor.preHandle(second, new MockHttpServletResponse(), null));
+		Assertions.assertEquals(1L, interceptor.clients());
+	}
+
+	@Test
+	public void findAllShouldCapPageSize() throws Exception {
+		mockMvc.perform(get("/products").param("size", "10000").param("withCategories", "true")
+				.header("X-Api-Key", "pager").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.size").value(100));
+	}
+}
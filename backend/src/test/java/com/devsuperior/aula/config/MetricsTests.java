@@ -0,0 +1,42 @@
+package com.devsuperior.aula.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Test
+	public void prometheusShouldExposeServiceRepositorySqlAndPoolMetrics() throws Exception {
+		
+		mockMvc.perform(get("/products").param("size", "5").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk());
+		mockMvc.perform(get("/products/{id}", 1L).accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk());
+		
+		String body = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		
+		Assertions.assertTrue(body.contains("catalog_service_seconds_bucket{class=\"com.devsuperior.aula.services.ProductService\""));
+		Assertions.assertTrue(body.contains("method=\"findAllPaged\""));
+		Assertions.assertTrue(body.contains("spring_data_repository_invocations_seconds_bucket"));
+		Assertions.assertTrue(body.contains("http_server_requests_sql_statements_count{method=\"GET\",status=\"200\",uri=\"/products\""));
+		Assertions.assertTrue(body.contains("hikaricp_connections_pending"));
+		Assertions.assertTrue(body.contains("cache_gets_total{cache=\"products\""));
+	}
+}
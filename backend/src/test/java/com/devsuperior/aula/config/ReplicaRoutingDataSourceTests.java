@@ -0,0 +1,96 @@
+package com.devsuperior.aula.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReplicaRoutingDataSourceTests {
+
+	private DataSource primary;
+	private DataSource replica;
+	private Connection primaryConnection;
+	private Connection replicaConnection;
+	private Clock clock;
+	private ReplicaRoutingDataSource router;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		primary = Mockito.mock(DataSource.class);
+		replica = Mockito.mock(DataSource.class);
+		primaryConnection = Mockito.mock(Connection.class);
+		replicaConnection = Mockito.mock(Connection.class);
+		Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+		Mockito.when(replica.getConnection()).thenReturn(replicaConnection);
+
+		clock = Mockito.mock(Clock.class);
+		Mockito.when(clock.millis()).thenReturn(10_000L);
+		router = new ReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(1), Duration.ofSeconds(30), clock);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	public void getConnectionShouldUsePrimaryOutsideReadOnlyTransaction() throws SQLException {
+
+		Assertions.assertSame(primaryConnection, router.getConnection());
+	}
+
+	@Test
+	public void getConnectionShouldUseReplicaInReadOnlyTransaction() throws SQLException {
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		Assertions.assertSame(replicaConnection, router.getConnection());
+	}
+
+	@Test
+	public void getConnectionShouldFallBackToPrimaryWhenReplicaFails() throws SQLException {
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Mockito.when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+		Assertions.assertSame(primaryConnection, router.getConnection());
+		Assertions.assertSame(primaryConnection, router.getConnection());
+		Mockito.verify(replica, Mockito.times(1)).getConnection();
+
+		Mockito.when(clock.millis()).thenReturn(40_000L);
+		Mockito.doReturn(replicaConnection).when(replica).getConnection();
+		Assertions.assertSame(replicaConnection, router.getConnection());
+	}
+
+	@Test
+	public void getConnectionShouldReadFromPrimaryWithinMaxLagOfCommittedWrite() throws SQLException {
+
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		router.getConnection();
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		TransactionSynchronizationManager.clearSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		Mockito.when(clock.millis()).thenReturn(10_500L);
+		Assertions.assertSame(primaryConnection, router.getConnection());
+
+		Mockito.when(clock.millis()).thenReturn(11_000L);
+		Assertions.assertSame(replicaConnection, router.getConnection());
+	}
+}
@@ -0,0 +1,106 @@
+package com.devsuperior.aula.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+import com.devsuperior.aula.services.CategoryService;
+import com.devsuperior.aula.services.ProductService;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica. The replica is
+ * a copy of the primary with one product renamed, so each read shows which
+ * database answered it.
+ */
+@SpringBootTest(properties = {
+		"app.datasource.replica.enabled=true",
+		"app.datasource.replica.jdbc-url=jdbc:h2:mem:replica",
+		"app.datasource.replica.username=sa",
+		"app.datasource.replica.max-lag=0s" })
+public class ReplicaRoutingTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	private JdbcTemplate primary;
+	private JdbcTemplate replica;
+
+	/**
+	 * Runners are called before the ApplicationReadyEvent that builds the
+	 * search index from the replica, so the copy exists by then.
+	 */
+	@TestConfiguration
+	static class ReplicaCopyConfig {
+
+		@Bean
+		public ApplicationRunner replicaCopy(@Qualifier("primaryDataSource") DataSource primary,
+				@Qualifier("replicaDataSource") DataSource replica) {
+			return args -> copy(new JdbcTemplate(primary), new JdbcTemplate(replica));
+		}
+	}
+
+	static void copy(JdbcTemplate primary, JdbcTemplate replica) {
+		List<String> script = primary.queryForList("SCRIPT", String.class);
+		replica.execute("DROP ALL OBJECTS");
+		script.forEach(replica::execute);
+		replica.update("UPDATE tb_product SET name = 'Replica copy' WHERE id = 1");
+	}
+
+	@BeforeEach
+	void setUp() throws Exception {
+		primary = new JdbcTemplate(primaryDataSource);
+		replica = new JdbcTemplate(replicaDataSource);
+		copy(primary, replica);
+	}
+
+	@Test
+	public void readOnlyTransactionsShouldReadFromReplica() {
+
+		List<ProductSummaryDTO> result = productService.findAllPaged(PageRequest.of(0, 5, Sort.by("id"))).getContent();
+
+		Assertions.assertEquals("Replica copy", result.get(0).getName());
+	}
+
+	@Test
+	public void writesShouldGoToPrimaryOnly() {
+
+		CategoryDTO dto = categoryService.insert(new CategoryDTO(null, "Replica test"));
+
+		try {
+			Assertions.assertEquals(1, primary.queryForObject(
+					"SELECT COUNT(*) FROM tb_category WHERE id = ?", Integer.class, dto.getId()));
+			Assertions.assertEquals(0, replica.queryForObject(
+					"SELECT COUNT(*) FROM tb_category WHERE id = ?", Integer.class, dto.getId()));
+		}
+		finally {
+			// with max-lag=0 the service's existence check would read the replica
+			primary.update("DELETE FROM tb_category WHERE id = ?", dto.getId());
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package com.devsuperior.aula.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	public void tryAcquireShouldAllowBurstThenReportWait() {
+		TokenBucket bucket = new TokenBucket(2.0, 3, 0L);
+
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertEquals(0L, bucket.tryAcquire(0L));
+		}
+		Assertions.assertEquals(SECOND / 2, bucket.tryAcquire(0L));
+	}
+
+	@Test
+	public void tryAcquireShouldRefillAtRateUpToCapacity() {
+		TokenBucket bucket = new TokenBucket(2.0, 3, 0L);
+		for (int i = 0; i < 3; i++) {
+			bucket.tryAcquire(0L);
+		}
+
+		Assertions.assertEquals(0L, bucket.tryAcquire(SECOND / 2));
+		Assertions.assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+
+		long later = 100 * SECOND;
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertEquals(0L, bucket.tryAcquire(later));
+		}
+		Assertions.assertTrue(bucket.tryAcquire(later) > 0);
+	}
+
+	@Test
+	public void tryAcquireShouldNeverGrantMoreThanCapacityConcurrently() throws Exception {
+		TokenBucket bucket = new TokenBucket(0.001, 100, 0L);
+		AtomicInteger granted = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 1000; i++) {
+			executor.execute(() -> {
+				if (bucket.tryAcquire(0L) == 0L) {
+					granted.incrementAndGet();
+				}
+			});
+		}
+		executor.shutdown();
+		Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		Assertions.assertEquals(100, granted.get());
+	}
+}
@@ -1,5 +1,6 @@
 package com.devsuperior.aula.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
@@ -7,11 +8,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
+import com.devsuperior.aula.config.SeedDataLoader;
 import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.Dto.ProductFilterDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
 import com.devsuperior.aula.repositories.tests.Factory;
 
 @DataJpaTest
+@Import(SeedDataLoader.class)
 public class ProductRepositoryTests {
 
 	@Autowired
@@ -66,4 +76,65 @@ public class ProductRepositoryTests {
 		Optional<Product> result = repository.findById(noExistingId);
 		Assertions.assertTrue(result.isEmpty());
 	}
+	
+	@Test
+	public void findNextPageShouldReturnProductsAfterIdOrderedById() {
+		
+		Slice<ProductSummaryDTO> result = repository.findNextPage(10L, PageRequest.of(0, 5));
+		List<Long> ids = result.getContent().stream().map(ProductSummaryDTO::getId).toList();
+		
+		Assertions.assertEquals(List.of(11L, 12L, 13L, 14L, 15L), ids);
+		Assertions.assertTrue(result.hasNext());
+	}
+	
+	@Test
+	public void findNextPageShouldReturnLastSliceWhenAfterNearEnd() {
+		
+		Slice<ProductSummaryDTO> result = repository.findNextPage(countTotalProducts - 2, PageRequest.of(0, 5));
+		
+		Assertions.assertEquals(2, result.getNumberOfElements());
+		Assertions.assertFalse(result.hasNext());
+	}
+	
+	@Test
+	public void findFilteredShouldReturnEachProductOnceWhenFilteringByCategory() {
+		
+		ProductFilterDTO filter = new ProductFilterDTO(3L, null, null, null);
+		
+		Page<ProductSummaryDTO> result = repository.findFiltered(filter, PageRequest.of(0, 10));
+		
+		Assertions.assertEquals(23L, result.getTotalElements());
+		Assertions.assertEquals(10, result.getContent().stream().map(ProductSummaryDTO::getId).distinct().count());
+	}
+	
+	@Test
+	public void findFilteredShouldCombinePriceRangeAndName() {
+		
+		ProductFilterDTO filter = new ProductFilterDTO(null, 1300.0, 1400.0, "gamer");
+		
+		Page<ProductSummaryDTO> result = repository.findFiltered(filter, PageRequest.of(0, 10, Sort.by("name")));
+		
+		Assertions.assertEquals(3L, result.getTotalElements());
+		Assertions.assertEquals("PC Gamer Ex", result.getContent().get(0).getName());
+		result.forEach(x -> Assertions.assertTrue(x.getPrice() >= 1300.0 && x.getPrice() <= 1400.0));
+	}
+	
+	@Test
+	public void findFilteredShouldMatchWildcardCharactersInNameLiterally() {
+		
+		Page<ProductSummaryDTO> percent = repository.findFiltered(new ProductFilterDTO(null, null, null, "%"), PageRequest.of(0, 10));
+		Page<ProductSummaryDTO> underscore = repository.findFiltered(new ProductFilterDTO(null, null, null, "pc_gamer"), PageRequest.of(0, 10));
+		
+		Assertions.assertEquals(0L, percent.getTotalElements());
+		Assertions.assertEquals(0L, underscore.getTotalElements());
+	}
+	
+	@Test
+	public void findAllSummariesShouldReturnPageWithoutDescription() {
+		
+		Page<ProductSummaryDTO> result = repository.findAllSummaries(PageRequest.of(0, 10, Sort.by("price")));
+		
+		Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+		Assertions.assertEquals("Rails for Dummies", result.getContent().get(1).getName());
+	}
 }
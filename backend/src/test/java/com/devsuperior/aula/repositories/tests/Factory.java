@@ -4,7 +4,9 @@ import java.time.Instant;
 
 import com.devsuperior.aula.entities.Category;
 import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
 import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
 
 public class Factory {
 	
@@ -19,6 +21,13 @@ public class Factory {
 		return new ProductDTO(product, product.getCategories());
 	}
 	
+	public static ProductSummaryDTO createProductSummaryDTO() {
+		Product product = createProduct();
+		ProductSummaryDTO dto = new ProductSummaryDTO(product);
+		product.getCategories().forEach(cat -> dto.getCategories().add(new CategoryDTO(cat)));
+		return dto;
+	}
+	
 	public static Category createCategory() {
 		Category category = new Category(1L, "Music");
 		return category;
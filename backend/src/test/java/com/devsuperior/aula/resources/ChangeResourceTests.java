@@ -0,0 +1,122 @@
+package com.devsuperior.aula.resources;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.services.ChangeLog;
+import com.devsuperior.aula.services.ProductService;
+
+/**
+ * Reads the event stream over a real connection, since MockMvc only sees
+ * what an SseEmitter sent once the stream has completed.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "app.changes.buffer-size=3")
+public class ChangeResourceTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ChangeLog changeLog;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private Stream<String> open(String query, String lastEventId) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/changes" + query))
+				.header("Accept", "text/event-stream");
+		if (lastEventId != null) {
+			request.header("Last-Event-ID", lastEventId);
+		}
+		HttpResponse<Stream<String>> response = client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+		Assertions.assertEquals(200, response.statusCode());
+		return response.body();
+	}
+
+	/**
+	 * The non-blank lines of the next {@code count} events, heartbeats skipped.
+	 */
+	private static List<String> read(Stream<String> stream, int count) throws Exception {
+		Iterator<String> lines = stream.iterator();
+		return CompletableFuture.supplyAsync(() -> {
+			List<String> result = new ArrayList<>();
+			int events = 0;
+			while (events < count && lines.hasNext()) {
+				String line = lines.next();
+				if (line.isEmpty()) {
+					events++;
+				}
+				else if (!line.startsWith(":")) {
+					result.add(line);
+				}
+			}
+			return result;
+		}).get(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void streamShouldDeliverCommittedChangesAfterSince() throws Exception {
+		long since = changeLog.lastSequence();
+		ProductDTO dto = productService.findById(1L);
+		productService.update(1L, dto, null);
+
+		try (Stream<String> stream = open("?since=" + since, null)) {
+			List<String> lines = read(stream, 1);
+
+			Assertions.assertEquals("id:" + (since + 1), lines.get(0));
+			Assertions.assertEquals("event:change", lines.get(1));
+			Assertions.assertTrue(lines.get(2).contains("\"entity\":\"PRODUCT\""));
+			Assertions.assertTrue(lines.get(2).contains("\"type\":\"UPDATED\""));
+			Assertions.assertTrue(lines.get(2).contains("\"ids\":[1]"));
+		}
+	}
+
+	@Test
+	public void streamShouldSendResetWhenLastEventIdWasOverwritten() throws Exception {
+		ProductDTO dto = productService.findById(2L);
+		for (int i = 0; i < 4; i++) {
+			productService.update(2L, dto, null);
+		}
+		long last = changeLog.lastSequence();
+
+		try (Stream<String> stream = open("", Long.toString(last - 4))) {
+			List<String> lines = read(stream, 4);
+
+			Assertions.assertEquals("id:" + (last - 3), lines.get(0));
+			Assertions.assertEquals("event:reset", lines.get(1));
+			Assertions.assertEquals("id:" + (last - 2), lines.get(3));
+			Assertions.assertEquals("id:" + last, lines.get(9));
+		}
+	}
+
+	@Test
+	public void streamShouldSendResetWhenLastEventIdIsFromEarlierRun() throws Exception {
+		ProductDTO dto = productService.findById(3L);
+		productService.update(3L, dto, null);
+
+		try (Stream<String> stream = open("", "50")) {
+			List<String> lines = read(stream, 1);
+
+			Assertions.assertEquals("id:" + (changeLog.oldestSequence() - 1), lines.get(0));
+			Assertions.assertEquals("event:reset", lines.get(1));
+		}
+	}
+}
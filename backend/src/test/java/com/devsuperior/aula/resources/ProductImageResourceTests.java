@@ -0,0 +1,158 @@
+package com.devsuperior.aula.resources;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.repositories.tests.Factory;
+import com.devsuperior.aula.services.ProductImageStore;
+import com.devsuperior.aula.services.ProductImageStore.StoredImage;
+import com.devsuperior.aula.services.ProductService;
+import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
+
+@WebMvcTest(ProductImageResource.class)
+@Import(ProductImageStore.class)
+public class ProductImageResourceTests {
+
+	@TempDir
+	static Path dir;
+
+	@DynamicPropertySource
+	static void imageProperties(DynamicPropertyRegistry registry) {
+		registry.add("app.images.dir", () -> dir.toString());
+		registry.add("app.images.max-file-size", () -> "1KB");
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductImageStore store;
+
+	@MockBean
+	private ProductService service;
+
+	private long existingId;
+	private long nonExistingId;
+	private byte[] bytes;
+	private StoredImage image;
+
+	@BeforeEach
+	void setUp() throws Exception {
+
+		existingId = 1L;
+		nonExistingId = 2L;
+		bytes = new byte[100];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+
+		ProductDTO productDTO = Factory.createProductDTO();
+		productDTO.setImgUrl(null);
+		when(service.findById(existingId)).thenReturn(productDTO);
+		when(service.findById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
+
+		image = store.save(existingId, MediaType.IMAGE_PNG, new ByteArrayInputStream(bytes));
+	}
+
+	@Test
+	public void findShouldReturnImageWithCachingHeaders() throws Exception {
+
+		mockMvc.perform(get("/products/{id}/image", existingId))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.IMAGE_PNG))
+				.andExpect(content().bytes(bytes))
+				.andExpect(header().string(HttpHeaders.ETAG, image.getEtag()))
+				.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, public"))
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+	}
+
+	@Test
+	public void findShouldReturnNotModifiedWhenEtagMatches() throws Exception {
+
+		mockMvc.perform(get("/products/{id}/image", existingId).header(HttpHeaders.IF_NONE_MATCH, image.getEtag()))
+				.andExpect(status().isNotModified())
+				.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	public void findShouldReturnPartialContentForRange() throws Exception {
+
+		mockMvc.perform(get("/products/{id}/image", existingId).header(HttpHeaders.RANGE, "bytes=10-19"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+				.andExpect(content().bytes(Arrays.copyOfRange(bytes, 10, 20)));
+	}
+
+	@Test
+	public void findShouldIgnoreRangeWhenIfRangeIsStale() throws Exception {
+
+		mockMvc.perform(get("/products/{id}/image", existingId).header(HttpHeaders.RANGE, "bytes=10-19")
+				.header(HttpHeaders.IF_RANGE, "\"stale\""))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(bytes));
+	}
+
+	@Test
+	public void findShouldReturnRangeNotSatisfiableWhenRangeStartsPastEnd() throws Exception {
+
+		mockMvc.perform(get("/products/{id}/image", existingId).header(HttpHeaders.RANGE, "bytes=100-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+	}
+
+	@Test
+	public void findShouldReturnNotFoundWhenProductHasNoImage() throws Exception {
+
+		mockMvc.perform(get("/products/{id}/image", nonExistingId))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void uploadShouldReplaceImage() throws Exception {
+
+		mockMvc.perform(put("/products/{id}/image", existingId).contentType(MediaType.IMAGE_JPEG).content(new byte[] { 1, 2, 3 }))
+				.andExpect(status().isNoContent());
+
+		mockMvc.perform(get("/products/{id}/image", existingId))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.IMAGE_JPEG))
+				.andExpect(content().bytes(new byte[] { 1, 2, 3 }));
+	}
+
+	@Test
+	public void uploadShouldReturnUnsupportedMediaTypeWhenNotAnImage() throws Exception {
+
+		mockMvc.perform(put("/products/{id}/image", existingId).contentType(MediaType.TEXT_PLAIN).content("x"))
+				.andExpect(status().isUnsupportedMediaType());
+	}
+
+	@Test
+	public void uploadShouldReturnPayloadTooLargeWhenImageExceedsLimit() throws Exception {
+
+		mockMvc.perform(put("/products/{id}/image", existingId).contentType(MediaType.IMAGE_PNG).content(new byte[2048]))
+				.andExpect(status().isPayloadTooLarge());
+	}
+}
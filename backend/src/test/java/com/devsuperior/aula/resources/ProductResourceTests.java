@@ -1,37 +1,75 @@
 package com.devsuperior.aula.resources;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.devsuperior.aula.config.BinaryFormatConfig;
+import com.devsuperior.aula.entities.Dto.BatchImportResultDTO;
+import com.devsuperior.aula.entities.Dto.BatchItemResultDTO;
+import com.devsuperior.aula.entities.Dto.BatchItemResultDTO.Status;
+import com.devsuperior.aula.entities.Dto.BulkDeleteResultDTO;
+import com.devsuperior.aula.entities.Dto.CursorPageDTO;
+import com.devsuperior.aula.entities.Dto.ProductChangesDTO;
 import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+import com.devsuperior.aula.entities.Dto.WriteStatusDTO;
 import com.devsuperior.aula.repositories.tests.Factory;
+import com.devsuperior.aula.services.ProductExportService;
+import com.devsuperior.aula.services.ProductImportService;
+import com.devsuperior.aula.services.ProductPageCache;
 import com.devsuperior.aula.services.ProductService;
+import com.devsuperior.aula.services.ProductSyncService;
+import com.devsuperior.aula.services.ProductWriteQueue;
+import com.devsuperior.aula.services.ResourceVersion;
+import com.devsuperior.aula.services.exceptions.ChangesExpiredException;
 import com.devsuperior.aula.services.exceptions.DatabaseException;
+import com.devsuperior.aula.services.exceptions.InvalidCursorException;
+import com.devsuperior.aula.services.exceptions.PreconditionFailedException;
 import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.aula.services.exceptions.TooManyRequestsException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 
 @WebMvcTest(ProductResource.class)
+@Import({ ProductPageCache.class, BinaryFormatConfig.class })
 public class ProductResourceTests {
 
 	@Autowired
@@ -40,15 +78,33 @@ public class ProductResourceTests {
 	@MockBean
 	private ProductService service;
 	
+	@MockBean
+	private ProductImportService importService;
+	
+	@MockBean
+	private ProductExportService exportService;
+	
+	@MockBean
+	private ProductWriteQueue writeQueue;
+	
+	@MockBean
+	private ProductSyncService syncService;
+	
+	@Autowired
+	private ProductPageCache pageCache;
+	
 	@Autowired
 	private ObjectMapper objectMapper;
 	
 	private ProductDTO productDTO;
-	private PageImpl<ProductDTO> page;
+	private PageImpl<ProductSummaryDTO> page;
+	private ResourceVersion version;
 	
 	private long existingId;
 	private long nonExistingId;
 	private long dependentId;
+	private long staleVersion;
+	private long racedVersion;
 	
 	@BeforeEach
 	 void setUp() throws Exception {
@@ -56,24 +112,50 @@ public class ProductResourceTests {
 		existingId = 1L;
 		nonExistingId = 2L;
 		dependentId = 3L;
+		staleVersion = 7L;
+		racedVersion = 8L;
 		
 		productDTO = Factory.createProductDTO();
+		version = new ResourceVersion("1594723200000", Instant.parse("2020-07-14T10:40:00Z"));
 		
-		page = new PageImpl<>(List.of(productDTO));
-		when(service.findAllPaged(any())).thenReturn(page);
+		page = new PageImpl<>(List.of(Factory.createProductSummaryDTO()));
+		when(service.findAllPaged(any(), any())).thenReturn(page);
+		when(service.findAllPagedWithCategories(any(), any())).thenReturn(page);
+		when(service.search(eq("phone"), any())).thenReturn(page);
+		when(service.findAllAfter(eq(""), anyInt())).thenReturn(new CursorPageDTO<>(List.of(Factory.createProductSummaryDTO()), 1, "aWQ6MQ"));
+		when(service.findAllAfter(eq("bad"), anyInt())).thenThrow(InvalidCursorException.class);
 		
 		when(service.findById(existingId)).thenReturn(productDTO);
 		when(service.findById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
+		when(service.findVersion(existingId)).thenReturn(version);
+		when(service.findVersion(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 		
-		when(service.update(eq(existingId), any())).thenReturn(productDTO);
-		when(service.update(eq(nonExistingId), any())).thenThrow(ResourceNotFoundException.class);
+		when(service.update(eq(existingId), any(), any())).thenReturn(productDTO);
+		when(service.update(eq(existingId), any(), eq(staleVersion))).thenThrow(PreconditionFailedException.class);
+		when(service.update(eq(existingId), any(), eq(racedVersion))).thenThrow(ObjectOptimisticLockingFailureException.class);
+		when(service.update(eq(nonExistingId), any(), any())).thenThrow(ResourceNotFoundException.class);
 		
 		when(service.insert(any())).thenReturn(productDTO);
 		
+		BatchImportResultDTO importResult = new BatchImportResultDTO();
+		importResult.add(new BatchItemResultDTO(0, existingId, Status.CREATED, null));
+		when(importService.importProducts(any())).thenReturn(importResult);
+		
+		BulkDeleteResultDTO deleteResult = new BulkDeleteResultDTO();
+		deleteResult.getDeleted().add(existingId);
+		deleteResult.getMissing().add(nonExistingId);
+		when(service.deleteAll(List.of(existingId, nonExistingId))).thenReturn(deleteResult);
+		
 		doNothing().when(service).delete(existingId);
 		doThrow(ResourceNotFoundException.class).when(service).delete(nonExistingId);
 		doThrow(DatabaseException.class).when(service).delete(dependentId);
 		
+		when(writeQueue.submitInsert(any())).thenReturn(new WriteStatusDTO("t-1", WriteStatusDTO.Status.QUEUED, null, null));
+		when(writeQueue.submitUpdate(eq(existingId), any(), any())).thenThrow(TooManyRequestsException.class);
+		when(writeQueue.findStatus("t-1")).thenReturn(new WriteStatusDTO("t-1", WriteStatusDTO.Status.COMPLETED, existingId, null));
+		when(writeQueue.findStatus("unknown")).thenThrow(ResourceNotFoundException.class);
+		
+		pageCache.invalidateAll();
 	}
 	
 	@Test
@@ -82,12 +164,171 @@ public class ProductResourceTests {
 		.andExpect(status().isOk());	
 	}
 	
+	@Test
+	public void findAllShouldServeCachedPageWithoutReloading() throws Exception {
+		mockMvc.perform(get("/products?page=0&size=12&sort=name").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk());
+		mockMvc.perform(get("/products?page=0&size=12&sort=name").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING))
+		.andExpect(jsonPath("$.content[0].name").exists());
+		
+		verify(service, times(1)).findAllPaged(any(), any());
+	}
+	
+	@Test
+	public void findAllShouldReturnGzipWhenAccepted() throws Exception {
+		byte[] body = mockMvc.perform(get("/products").accept(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+		.andExpect(status().isOk())
+		.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+		.andReturn().getResponse().getContentAsByteArray();
+		
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			assertTrue(json.contains("\"content\""));
+		}
+	}
+	
+	@Test
+	public void findAllShouldReturnCborWhenAcceptedInsteadOfCachedJson() throws Exception {
+		MediaType cbor = MediaType.valueOf("application/cbor");
+		byte[] body = mockMvc.perform(get("/products?page=0&size=12&sort=name").accept(cbor))
+		.andExpect(status().isOk())
+		.andExpect(content().contentTypeCompatibleWith(cbor))
+		.andReturn().getResponse().getContentAsByteArray();
+		
+		JsonNode page = new ObjectMapper(new CBORFactory()).readTree(body);
+		assertTrue(page.get("content").get(0).get("name").isTextual());
+	}
+	
+	@Test
+	public void findByIdShouldReturnSmileWhenAccepted() throws Exception {
+		MediaType smile = MediaType.valueOf("application/x-jackson-smile");
+		byte[] body = mockMvc.perform(get("/products/{id}", existingId).accept(smile))
+		.andExpect(status().isOk())
+		.andExpect(content().contentTypeCompatibleWith(smile))
+		.andReturn().getResponse().getContentAsByteArray();
+		
+		JsonNode product = new ObjectMapper(new SmileFactory()).readTree(body);
+		assertTrue(product.get("date").isTextual());
+	}
+	
+	@Test
+	public void findByIdShouldReturnJsonForWildcardAccept() throws Exception {
+		mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.ALL))
+		.andExpect(status().isOk())
+		.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+	
+	@Test
+	public void findAllShouldNotSerializeDescription() throws Exception {
+		mockMvc.perform(get("/products").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.content[0].name").exists())
+		.andExpect(jsonPath("$.content[0].description").doesNotExist());
+	}
+	
+	@Test
+	public void findAllShouldBindFilterParameters() throws Exception {
+		mockMvc.perform(get("/products").param("categoryId", "2").param("minPrice", "100").param("maxPrice", "900")
+				.param("name", "phone").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk());
+		
+		verify(service).findAllPaged(argThat(filter -> filter.getCategoryId() == 2L && filter.getMinPrice() == 100.0
+				&& filter.getMaxPrice() == 900.0 && filter.getName().equals("phone")), any());
+	}
+	
+	@Test
+	public void findAllShouldReturnPageWithCategoriesWhenRequested() throws Exception {
+		mockMvc.perform(get("/products").param("withCategories", "true").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.content[0].categories[0].id").exists());
+	}
+	
+	@Test
+	public void searchShouldReturnPage() throws Exception {
+		mockMvc.perform(get("/products/search").param("q", "phone").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.content[0].id").value(existingId));
+	}
+	
+	@Test
+	public void findAllAfterShouldReturnCursorPage() throws Exception {
+		mockMvc.perform(get("/products").param("after", "").param("size", "1").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.content").exists())
+		.andExpect(jsonPath("$.nextCursor").value("aWQ6MQ"))
+		.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test
+	public void findAllAfterShouldReturnBadRequestWhenInvalidCursor() throws Exception {
+		mockMvc.perform(get("/products").param("after", "bad").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void findAllAfterShouldReturnBadRequestWhenWithCategories() throws Exception {
+		mockMvc.perform(get("/products").param("after", "").param("withCategories", "true").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isBadRequest())
+		.andExpect(jsonPath("$.error").value("Bad request"));
+	}
+	
+	@Test
+	public void findAllAfterShouldReturnCursorPageWhenWithoutCategories() throws Exception {
+		mockMvc.perform(get("/products").param("after", "").param("withCategories", "false").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.nextCursor").value("aWQ6MQ"));
+	}
+	
+	@Test
+	public void findChangesShouldReturnChangesAfterSince() throws Exception {
+		Instant since = Instant.parse("2020-07-14T10:00:00Z");
+		ProductChangesDTO changes = new ProductChangesDTO(Instant.parse("2020-07-15T10:00:00Z"), null);
+		changes.getUpdated().add(productDTO);
+		when(syncService.findChanges(eq(since), any(), anyInt())).thenReturn(changes);
+		
+		mockMvc.perform(get("/products/changes").param("since", since.toString()).accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.updated[0].id").exists())
+		.andExpect(jsonPath("$.until").value("2020-07-15T10:00:00Z"))
+		.andExpect(jsonPath("$.last").value(true));
+	}
+	
+	@Test
+	public void findChangesShouldReturnGoneWhenTombstonesExpired() throws Exception {
+		when(syncService.findChanges(any(), any(), anyInt())).thenThrow(ChangesExpiredException.class);
+		
+		mockMvc.perform(get("/products/changes").param("since", "2000-01-01T00:00:00Z").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isGone());
+	}
+	
 	@Test
 	public void findByIdShouldReturnProductDTOWhenExistingId() throws Exception {
 		mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
 		.andExpect(status().isOk())
 		.andExpect(jsonPath("$.id").exists())
-		.andExpect(jsonPath("$.name").exists());
+		.andExpect(jsonPath("$.name").exists())
+		.andExpect(header().string(HttpHeaders.ETAG, version.getEtag()))
+		.andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+	}
+	
+	@Test
+	public void findByIdShouldReturnNotModifiedWhenEtagMatches() throws Exception {
+		mockMvc.perform(get("/products/{id}", existingId).header(HttpHeaders.IF_NONE_MATCH, version.getEtag())
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isNotModified());
+		
+		verify(service, never()).findById(existingId);
+	}
+	
+	@Test
+	public void findByIdShouldReturnProductDTOWhenEtagIsStale() throws Exception {
+		mockMvc.perform(get("/products/{id}", existingId).header(HttpHeaders.IF_NONE_MATCH, "W/\"1\"")
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.id").exists());
 	}
 	
 	@Test
@@ -107,7 +348,80 @@ public class ProductResourceTests {
 				.accept(MediaType.APPLICATION_JSON))
 		.andExpect(status().isOk())
 		.andExpect(jsonPath("$.id").exists())
-		.andExpect(jsonPath("$.name").exists());
+		.andExpect(jsonPath("$.name").exists())
+		.andExpect(header().string(HttpHeaders.ETAG, version.getEtag()));
+	}
+	
+	@Test
+	public void updateShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+		
+		String jsonBody = objectMapper.writeValueAsString(productDTO);
+		
+		mockMvc.perform(put("/products/{id}", existingId)
+				.header(HttpHeaders.IF_MATCH, "W/\"" + staleVersion + "-3-1594723200000\"")
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isPreconditionFailed());
+	}
+	
+	@Test
+	public void updateShouldReturnConflictWhenConcurrentWriterWins() throws Exception {
+		
+		String jsonBody = objectMapper.writeValueAsString(productDTO);
+		
+		mockMvc.perform(put("/products/{id}", existingId)
+				.header(HttpHeaders.IF_MATCH, "W/\"" + racedVersion + "-3-1594723200000\"")
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isConflict());
+	}
+	
+	@Test
+	public void insertShouldReturnAcceptedWhenClientPrefersAsync() throws Exception {
+		
+		String jsonBody = objectMapper.writeValueAsString(productDTO);
+		
+		mockMvc.perform(post("/products")
+				.header("Prefer", "respond-async, wait=5")
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isAccepted())
+		.andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/products/writes/t-1"))
+		.andExpect(header().string("Preference-Applied", "respond-async"))
+		.andExpect(jsonPath("$.status").value("QUEUED"));
+		
+		verify(service, never()).insert(any());
+	}
+	
+	@Test
+	public void updateShouldReturnTooManyRequestsWhenWriteQueueIsFull() throws Exception {
+		
+		String jsonBody = objectMapper.writeValueAsString(productDTO);
+		
+		mockMvc.perform(put("/products/{id}", existingId)
+				.header("Prefer", "respond-async")
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isTooManyRequests())
+		.andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+	}
+	
+	@Test
+	public void findWriteStatusShouldReturnStatusWhenTrackingIdExists() throws Exception {
+		mockMvc.perform(get("/products/writes/{trackingId}", "t-1").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.status").value("COMPLETED"))
+		.andExpect(jsonPath("$.productId").value(existingId));
+	}
+	
+	@Test
+	public void findWriteStatusShouldReturnNotFoundWhenTrackingIdIsUnknown() throws Exception {
+		mockMvc.perform(get("/products/writes/{trackingId}", "unknown").accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isNotFound());
 	}
 	
 	@Test 
@@ -134,6 +448,29 @@ public class ProductResourceTests {
 		
 	}
 	
+	@Test
+	public void insertBatchShouldReturnItemResultsWhenNdjson() throws Exception {
+		
+		String body = objectMapper.writeValueAsString(productDTO) + "\n";
+		
+		mockMvc.perform(post("/products/batch")
+				.content(body)
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.created").value(1))
+		.andExpect(jsonPath("$.items[0].id").value(existingId));
+	}
+	
+	@Test
+	public void deleteAllShouldReturnDeletedAndMissingIds() throws Exception {
+		mockMvc.perform(delete("/products").param("ids", existingId + "," + nonExistingId)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.deleted[0]").value(existingId))
+		.andExpect(jsonPath("$.missing[0]").value(nonExistingId));
+	}
+	
 	@Test
 	public void deleteShouldReturnNoContentWhenIdNoExisting() throws Exception {
 		mockMvc.perform(delete("/products/{id}", existingId))
@@ -0,0 +1,98 @@
+package com.devsuperior.aula.services;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.aula.entities.Dto.BulkDeleteResultDTO;
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.repositories.ProductRepository;
+import com.devsuperior.aula.services.exceptions.DatabaseException;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Transactional
+public class BulkDeleteTests {
+
+	@Autowired
+	private ProductService productService;
+	
+	@Autowired
+	private CategoryService categoryService;
+	
+	@Autowired
+	private ProductRepository productRepository;
+	
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	private Statistics statistics;
+	private long countTotalProducts;
+	private long nonExistingId;
+	private long dependentCategoryId;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		countTotalProducts = 25L;
+		nonExistingId = 1000L;
+		dependentCategoryId = 1L;
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+	}
+	
+	@Test
+	public void deleteAllShouldDeleteProductsWithFixedStatementsAndReportMissing() {
+		
+		List<Long> ids = LongStream.rangeClosed(1, 10).boxed().toList();
+		
+		BulkDeleteResultDTO result = productService.deleteAll(concat(ids, nonExistingId));
+		
+		// existing ids + tombstones + category links + products, whatever the number of ids
+		Assertions.assertEquals(4L, statistics.getPrepareStatementCount());
+		Assertions.assertEquals(ids, result.getDeleted());
+		Assertions.assertEquals(List.of(nonExistingId), result.getMissing());
+		Assertions.assertTrue(result.getFailed().isEmpty());
+		Assertions.assertEquals(countTotalProducts - ids.size(), productRepository.count());
+	}
+	
+	@Test
+	public void deleteAllShouldIgnoreDuplicateIds() {
+		
+		BulkDeleteResultDTO result = productService.deleteAll(List.of(1L, 1L));
+		
+		Assertions.assertEquals(List.of(1L), result.getDeleted());
+	}
+	
+	@Test
+	public void deleteAllShouldReportCategoriesStillLinkedToProductsAsFailed() {
+		
+		CategoryDTO unused = categoryService.insert(new CategoryDTO(null, "Descontinuados"));
+		
+		BulkDeleteResultDTO result = categoryService.deleteAll(List.of(unused.getId(), dependentCategoryId, nonExistingId));
+		
+		Assertions.assertEquals(List.of(unused.getId()), result.getDeleted());
+		Assertions.assertEquals(List.of(dependentCategoryId), result.getFailed());
+		Assertions.assertEquals(List.of(nonExistingId), result.getMissing());
+	}
+	
+	@Test
+	public void deleteShouldThrowDatabaseExceptionWhenCategoryIsLinkedToProducts() {
+		
+		Assertions.assertThrows(DatabaseException.class, () -> categoryService.delete(dependentCategoryId));
+	}
+	
+	private static List<Long> concat(List<Long> ids, Long id) {
+		return Stream.concat(ids.stream(), Stream.of(id)).toList();
+	}
+}
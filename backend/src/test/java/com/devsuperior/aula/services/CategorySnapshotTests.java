@@ -0,0 +1,99 @@
+package com.devsuperior.aula.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.aula.entities.Category;
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.repositories.CategoryRepository;
+import com.devsuperior.aula.services.events.CategoryChangedEvent;
+import com.devsuperior.aula.services.events.ChangeType;
+
+@ExtendWith(SpringExtension.class)
+public class CategorySnapshotTests {
+
+	@InjectMocks
+	private CategorySnapshot snapshot;
+	
+	@Mock
+	private CategoryRepository repository;
+	
+	private List<Category> categories;
+	private long existingId;
+	private long noExistingId;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 2L;
+		noExistingId = 1000L;
+		categories = new ArrayList<>(List.of(new Category(1L, "Livros"), new Category(2L, "Eletrônicos"),
+				new Category(3L, "Computadores")));
+		
+		Mockito.when(repository.findAll(ArgumentMatchers.any(Sort.class))).thenAnswer(x -> List.copyOf(categories));
+	}
+	
+	@Test
+	public void findAllShouldReturnSortedPageFromMemory() {
+		
+		Page<CategoryDTO> result = snapshot.findAll(PageRequest.of(0, 2, Sort.by("name")));
+		
+		Assertions.assertEquals(3L, result.getTotalElements());
+		Assertions.assertEquals("Computadores", result.getContent().get(0).getName());
+		Assertions.assertEquals("Eletrônicos", result.getContent().get(1).getName());
+	}
+	
+	@Test
+	public void findByIdShouldLoadTableOnlyOnce() {
+		
+		snapshot.findById(existingId);
+		snapshot.findById(noExistingId);
+		snapshot.contains(existingId);
+		
+		Mockito.verify(repository, Mockito.times(1)).findAll(ArgumentMatchers.any(Sort.class));
+		Assertions.assertTrue(snapshot.findById(existingId).isPresent());
+		Assertions.assertTrue(snapshot.findById(noExistingId).isEmpty());
+	}
+	
+	@Test
+	public void onCategoryChangedShouldRebuildSnapshot() {
+		
+		Assertions.assertFalse(snapshot.contains(4L));
+		categories.add(new Category(4L, "Música"));
+		
+		snapshot.onCategoryChanged(new CategoryChangedEvent(ChangeType.CREATED, 4L));
+		
+		Assertions.assertTrue(snapshot.contains(4L));
+	}
+	
+	@Test
+	public void supportsShouldRejectPropertiesNotInSnapshot() {
+		
+		Assertions.assertTrue(CategorySnapshot.supports(Sort.by("name").descending()));
+		Assertions.assertFalse(CategorySnapshot.supports(Sort.by("createdAt")));
+	}
+	
+	@Test
+	public void versionShouldChangeWhenCategoryIsDeleted() {
+		
+		ResourceVersion before = snapshot.version();
+		categories.remove(2);
+		
+		snapshot.onCategoryChanged(new CategoryChangedEvent(ChangeType.DELETED, 3L));
+		
+		Assertions.assertNotEquals(before.getEtag(), snapshot.version().getEtag());
+		Assertions.assertTrue(snapshot.version(3L).isEmpty());
+	}
+}
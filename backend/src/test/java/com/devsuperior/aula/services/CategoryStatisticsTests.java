@@ -0,0 +1,94 @@
+package com.devsuperior.aula.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.CategoryStatsDTO;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.repositories.tests.Factory;
+
+@SpringBootTest
+public class CategoryStatisticsTests {
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryStatistics statistics;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long firstCategoryId;
+	private long secondCategoryId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		firstCategoryId = 2L;
+		secondCategoryId = 3L;
+		statistics.reconcile();
+	}
+
+	private CategoryStatsDTO stats(long categoryId) {
+		return categoryService.findStats().stream()
+				.filter(x -> x.getCategoryId() == categoryId)
+				.findFirst().orElseThrow();
+	}
+
+	@Test
+	public void statsShouldFollowProductInsertUpdateAndDelete() {
+		CategoryStatsDTO first = stats(firstCategoryId);
+		CategoryStatsDTO second = stats(secondCategoryId);
+
+		ProductDTO dto = Factory.createProductDTO();
+		dto.setId(null);
+		dto.setPrice(99999.0);
+		dto.getCategories().clear();
+		dto.getCategories().add(new CategoryDTO(firstCategoryId, null));
+		dto = productService.insert(dto);
+
+		Assertions.assertEquals(first.getProductCount() + 1, stats(firstCategoryId).getProductCount());
+		Assertions.assertEquals(99999.0, stats(firstCategoryId).getMaxPrice());
+
+		dto.setPrice(0.5);
+		dto.getCategories().clear();
+		dto.getCategories().add(new CategoryDTO(secondCategoryId, null));
+		productService.update(dto.getId(), dto);
+
+		Assertions.assertEquals(first.getProductCount(), stats(firstCategoryId).getProductCount());
+		Assertions.assertEquals(first.getMaxPrice(), stats(firstCategoryId).getMaxPrice());
+		Assertions.assertEquals(second.getProductCount() + 1, stats(secondCategoryId).getProductCount());
+		Assertions.assertEquals(0.5, stats(secondCategoryId).getMinPrice());
+
+		productService.delete(dto.getId());
+
+		Assertions.assertEquals(second.getProductCount(), stats(secondCategoryId).getProductCount());
+		Assertions.assertEquals(second.getMinPrice(), stats(secondCategoryId).getMinPrice());
+		Assertions.assertEquals(second.getAvgPrice(), stats(secondCategoryId).getAvgPrice(), 1e-9);
+		Assertions.assertFalse(statistics.reconcile());
+	}
+
+	@Test
+	public void reconcileShouldRebuildWhenWriteBypassedServices() {
+		long before = stats(secondCategoryId).getProductCount();
+
+		jdbcTemplate.update("INSERT INTO tb_product_category (product_id, category_id) VALUES (1, ?)", secondCategoryId);
+		try {
+			Assertions.assertEquals(before, stats(secondCategoryId).getProductCount());
+			Assertions.assertTrue(statistics.reconcile());
+			Assertions.assertEquals(before + 1, stats(secondCategoryId).getProductCount());
+		}
+		finally {
+			jdbcTemplate.update("DELETE FROM tb_product_category WHERE product_id = 1 AND category_id = ?", secondCategoryId);
+			statistics.reconcile();
+		}
+	}
+}
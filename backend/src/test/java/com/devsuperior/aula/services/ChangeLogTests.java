@@ -0,0 +1,80 @@
+package com.devsuperior.aula.services;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.aula.entities.Dto.ChangeEventDTO;
+import com.devsuperior.aula.entities.Dto.ChangeEventDTO.Entity;
+import com.devsuperior.aula.services.events.ChangeType;
+
+public class ChangeLogTests {
+
+	private ChangeLog changeLog;
+	private long base;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		changeLog = new ChangeLog(3, Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC));
+		base = changeLog.lastSequence();
+	}
+
+	@Test
+	public void appendShouldNumberChangesConsecutively() {
+
+		ChangeEventDTO first = changeLog.append(Entity.PRODUCT, ChangeType.UPDATED, List.of(1L));
+		ChangeEventDTO second = changeLog.append(Entity.CATEGORY, ChangeType.DELETED, List.of(2L, 3L));
+
+		Assertions.assertEquals(base + 1, first.getSequence());
+		Assertions.assertEquals(base + 2, second.getSequence());
+		Assertions.assertEquals(List.of(2L, 3L), second.getIds());
+		Assertions.assertEquals(base + 2, changeLog.lastSequence());
+		Assertions.assertEquals(base + 1, changeLog.oldestSequence());
+	}
+
+	@Test
+	public void laterRunShouldNumberAbovePreviousRun() {
+		for (long id = 1; id <= 3; id++) {
+			changeLog.append(Entity.PRODUCT, ChangeType.CREATED, List.of(id));
+		}
+
+		ChangeLog restarted = new ChangeLog(3, Clock.fixed(Instant.parse("2024-01-01T00:00:01Z"), ZoneOffset.UTC));
+		for (long id = 1; id <= 3; id++) {
+			restarted.append(Entity.PRODUCT, ChangeType.CREATED, List.of(id));
+		}
+
+		// a reader of the previous run is behind everything retained, so it is reset
+		Assertions.assertTrue(changeLog.lastSequence() + 1 < restarted.oldestSequence());
+	}
+
+	@Test
+	public void readAfterShouldReturnOnlyLaterChangesUpToMax() {
+		for (long id = 1; id <= 3; id++) {
+			changeLog.append(Entity.PRODUCT, ChangeType.CREATED, List.of(id));
+		}
+
+		List<ChangeEventDTO> result = changeLog.readAfter(base + 1, 1);
+
+		Assertions.assertEquals(1, result.size());
+		Assertions.assertEquals(base + 2, result.get(0).getSequence());
+		Assertions.assertTrue(changeLog.readAfter(base + 3, 10).isEmpty());
+	}
+
+	@Test
+	public void readAfterShouldSkipOverwrittenChangesWhenBufferWraps() {
+		for (long id = 1; id <= 5; id++) {
+			changeLog.append(Entity.PRODUCT, ChangeType.UPDATED, List.of(id));
+		}
+
+		List<ChangeEventDTO> result = changeLog.readAfter(base, 10);
+
+		Assertions.assertEquals(base + 3, changeLog.oldestSequence());
+		Assertions.assertEquals(List.of(base + 3, base + 4, base + 5), result.stream().map(ChangeEventDTO::getSequence).toList());
+		Assertions.assertEquals(List.of(5L), result.get(2).getIds());
+	}
+}
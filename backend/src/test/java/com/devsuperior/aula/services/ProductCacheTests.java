@@ -0,0 +1,58 @@
+package com.devsuperior.aula.services;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.repositories.tests.Factory;
+import com.devsuperior.aula.services.events.CategoryChangedEvent;
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+
+public class ProductCacheTests {
+
+	private ProductCache cache;
+	private Product product;
+	private long existingId;
+	private long referencedCategoryId;
+	private long otherCategoryId;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		cache = new ProductCache(100, Duration.ofMinutes(1));
+		product = Factory.createProduct();
+		existingId = product.getId();
+		referencedCategoryId = 2L;
+		otherCategoryId = 1L;
+		cache.get(existingId, id -> new ProductDTO(product, product.getCategories()));
+	}
+	
+	@Test
+	public void onProductChangedShouldInvalidateProduct() {
+		
+		cache.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, existingId));
+		
+		Assertions.assertEquals(0L, cache.stats().getSize());
+	}
+	
+	@Test
+	public void onCategoryChangedShouldInvalidateProductsReferencingCategory() {
+		
+		cache.onCategoryChanged(new CategoryChangedEvent(ChangeType.UPDATED, referencedCategoryId));
+		
+		Assertions.assertEquals(0L, cache.stats().getSize());
+	}
+	
+	@Test
+	public void onCategoryChangedShouldKeepProductsNotReferencingCategory() {
+		
+		cache.onCategoryChanged(new CategoryChangedEvent(ChangeType.DELETED, otherCategoryId));
+		
+		Assertions.assertEquals(1L, cache.stats().getSize());
+		Assertions.assertEquals(1L, cache.stats().getMissCount());
+	}
+}
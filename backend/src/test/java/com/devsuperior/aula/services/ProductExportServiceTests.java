@@ -0,0 +1,61 @@
+package com.devsuperior.aula.services;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@TestPropertySource(properties = "app.export.chunk-size=10")
+public class ProductExportServiceTests {
+
+	@Autowired
+	private ProductExportService service;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	private long countTotalProducts;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		countTotalProducts = 25L;
+	}
+	
+	@Test
+	public void exportShouldWriteOneJsonLinePerProductWithCategories() throws Exception {
+		
+		List<String> lines = export(ExportFormat.NDJSON, true);
+		
+		Assertions.assertEquals(countTotalProducts, lines.size());
+		ProductDTO last = objectMapper.readValue(lines.get(lines.size() - 1), ProductDTO.class);
+		Assertions.assertEquals(countTotalProducts, last.getId());
+		Assertions.assertEquals(3L, last.getCategories().get(0).getId());
+	}
+	
+	@Test
+	public void exportShouldWriteHeaderAndQuotedFieldsWhenCsv() throws Exception {
+		
+		List<String> lines = export(ExportFormat.CSV, false);
+		
+		Assertions.assertEquals(countTotalProducts + 1, lines.size());
+		Assertions.assertEquals("id,name,price,imgUrl,date,description", lines.get(0));
+		Assertions.assertTrue(lines.get(1).startsWith("1,The Lord of the Rings,90.5,"));
+		Assertions.assertTrue(lines.get(1).endsWith("\""));
+	}
+	
+	private List<String> export(ExportFormat format, boolean withCategories) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		service.export(out, format, withCategories);
+		return out.toString(StandardCharsets.UTF_8).lines().toList();
+	}
+}
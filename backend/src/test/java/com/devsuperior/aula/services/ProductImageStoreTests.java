@@ -0,0 +1,220 @@
+package com.devsuperior.aula.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import com.devsuperior.aula.services.ProductImageStore.StoredImage;
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+import com.devsuperior.aula.services.exceptions.ImageTooLargeException;
+import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
+import com.sun.net.httpserver.HttpServer;
+
+public class ProductImageStoreTests {
+
+	@TempDir
+	Path dir;
+
+	@TempDir
+	Path remote;
+
+	private ProductImageStore store;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// "file" stands in for http, so remote images are local files too
+		store = new ProductImageStore(dir, DataSize.ofBytes(250), DataSize.ofBytes(200), Set.of("file"),
+				Set.of(), Duration.ofSeconds(1), Duration.ZERO);
+		store.init();
+	}
+
+	@Test
+	public void findShouldReturnUploadedImageOverRemoteOne() throws IOException {
+		String imgUrl = remoteImage("a.png", 100);
+
+		StoredImage image = store.save(1L, MediaType.IMAGE_JPEG, new ByteArrayInputStream(new byte[10]));
+
+		StoredImage found = store.find(1L, imgUrl);
+		Assertions.assertEquals(image.getPath(), found.getPath());
+		Assertions.assertEquals(MediaType.IMAGE_JPEG, found.getMediaType());
+		Assertions.assertEquals(10L, found.getLength());
+		Assertions.assertEquals(0L, store.cachedBytes());
+	}
+
+	@Test
+	public void findShouldFetchRemoteImageOnceAndCacheIt() throws IOException {
+		String imgUrl = remoteImage("a.png", 100);
+
+		StoredImage first = store.find(1L, imgUrl);
+		Files.delete(remote.resolve("a.png"));
+		StoredImage second = store.find(1L, imgUrl);
+
+		Assertions.assertEquals(first.getPath(), second.getPath());
+		Assertions.assertEquals(MediaType.IMAGE_PNG, second.getMediaType());
+		Assertions.assertEquals(100L, store.cachedBytes());
+	}
+
+	@Test
+	public void cacheShouldEvictLeastRecentlyUsedFilesButKeepUploads() throws IOException {
+		StoredImage upload = store.save(9L, MediaType.IMAGE_PNG, new ByteArrayInputStream(new byte[200]));
+		StoredImage first = store.find(1L, remoteImage("1.png", 100));
+		store.find(2L, remoteImage("2.png", 100));
+		store.find(3L, remoteImage("3.png", 100));
+
+		Assertions.assertTrue(store.cachedBytes() <= 250L);
+		store.purgeRetired();
+		Assertions.assertFalse(Files.exists(first.getPath()));
+		Assertions.assertTrue(Files.exists(upload.getPath()));
+	}
+
+	@Test
+	public void findShouldThrowResourceNotFoundExceptionWhenSchemeIsNotAllowed() {
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			store.find(1L, "https://example.com/a.png");
+		});
+	}
+
+	@Test
+	public void replacedImageShouldStayReadableUntilRetireDelayPasses() throws Exception {
+		ProductImageStore delayed = new ProductImageStore(dir, DataSize.ofBytes(250), DataSize.ofBytes(200),
+				Set.of("file"), Set.of(), Duration.ofSeconds(1), Duration.ofMinutes(1));
+		delayed.init();
+		StoredImage first = delayed.save(1L, MediaType.IMAGE_PNG, new ByteArrayInputStream(new byte[10]));
+
+		delayed.save(1L, MediaType.IMAGE_PNG, new ByteArrayInputStream(new byte[20]));
+		delayed.purgeRetired();
+
+		Assertions.assertTrue(Files.exists(first.getPath()));
+		delayed.stop();
+		Assertions.assertFalse(Files.exists(first.getPath()));
+	}
+
+	@Test
+	public void findShouldNotFetchFromLoopbackAddress() throws Exception {
+		AtomicInteger requests = new AtomicInteger();
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", exchange -> {
+			requests.incrementAndGet();
+			exchange.getResponseHeaders().set("Content-Type", "image/png");
+			exchange.sendResponseHeaders(200, 10);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(new byte[10]);
+			}
+		});
+		server.start();
+		try {
+			ProductImageStore httpStore = new ProductImageStore(dir, DataSize.ofBytes(250), DataSize.ofBytes(200),
+					Set.of("http"), Set.of(), Duration.ofSeconds(1), Duration.ZERO);
+			httpStore.init();
+			String imgUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/a.png";
+
+			Assertions.assertThrows(ResourceNotFoundException.class, () -> httpStore.find(1L, imgUrl));
+			Assertions.assertEquals(0, requests.get());
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void findShouldNotFetchFromEmptyAuthority() throws Exception {
+		AtomicInteger requests = new AtomicInteger();
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", exchange -> {
+			requests.incrementAndGet();
+			exchange.sendResponseHeaders(404, -1);
+			exchange.close();
+		});
+		server.start();
+		try {
+			ProductImageStore httpStore = new ProductImageStore(dir, DataSize.ofBytes(250), DataSize.ofBytes(200),
+					Set.of("http"), Set.of(), Duration.ofSeconds(1), Duration.ZERO);
+			httpStore.init();
+
+			// URI sees no host here, URL connects to localhost
+			Assertions.assertThrows(ResourceNotFoundException.class,
+					() -> httpStore.find(1L, "http://:" + server.getAddress().getPort() + "/a.png"));
+			Assertions.assertEquals(0, requests.get());
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void checkedUrlShouldRejectHostsUriCannotParse() throws Exception {
+		ProductImageStore httpStore = new ProductImageStore(dir, DataSize.ofBytes(250), DataSize.ofBytes(200),
+				Set.of("http"), Set.of("images.example.com"), Duration.ofSeconds(1), Duration.ZERO);
+
+		IOException underscore = Assertions.assertThrows(IOException.class,
+				() -> httpStore.checkedUrl(URI.create("http://internal_svc:8080/x.png")));
+		Assertions.assertEquals("Host not allowed: internal_svc", underscore.getMessage());
+		Assertions.assertThrows(IOException.class, () -> httpStore.checkedUrl(URI.create("http:///admin")));
+	}
+
+	@Test
+	public void findShouldNotFetchFromHostOutsideAllowList() throws Exception {
+		ProductImageStore httpStore = new ProductImageStore(dir, DataSize.ofBytes(250), DataSize.ofBytes(200),
+				Set.of("http"), Set.of("images.example.com"), Duration.ofSeconds(1), Duration.ZERO);
+		httpStore.init();
+
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> httpStore.find(1L, "http://other.example.com/a.png"));
+	}
+
+	@Test
+	public void saveShouldThrowImageTooLargeExceptionAndKeepNothing() throws IOException {
+		Assertions.assertThrows(ImageTooLargeException.class, () -> {
+			store.save(1L, MediaType.IMAGE_PNG, new ByteArrayInputStream(new byte[201]));
+		});
+		try (var files = Files.list(dir.resolve("uploads"))) {
+			Assertions.assertEquals(0L, files.count());
+		}
+	}
+
+	@Test
+	public void initShouldIndexImagesLeftByPreviousRun() throws Exception {
+		StoredImage upload = store.save(1L, MediaType.IMAGE_PNG, new ByteArrayInputStream(new byte[10]));
+		store.find(2L, remoteImage("2.png", 100));
+
+		ProductImageStore restarted = new ProductImageStore(dir, DataSize.ofBytes(250), DataSize.ofBytes(200),
+				Set.of("file"), Set.of(), Duration.ofSeconds(1), Duration.ZERO);
+		restarted.init();
+
+		Assertions.assertEquals(upload.getEtag(), restarted.find(1L, null).getEtag());
+		Assertions.assertEquals(100L, restarted.cachedBytes());
+	}
+
+	@Test
+	public void productDeletedShouldRemoveItsImages() throws IOException {
+		StoredImage upload = store.save(1L, MediaType.IMAGE_PNG, new ByteArrayInputStream(new byte[10]));
+		StoredImage cached = store.find(2L, remoteImage("2.png", 100));
+
+		store.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, List.of(1L, 2L)));
+		store.purgeRetired();
+
+		Assertions.assertFalse(Files.exists(upload.getPath()));
+		Assertions.assertFalse(Files.exists(cached.getPath()));
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> store.find(1L, null));
+	}
+
+	private String remoteImage(String name, int size) throws IOException {
+		return Files.write(remote.resolve(name), new byte[size]).toUri().toString();
+	}
+}
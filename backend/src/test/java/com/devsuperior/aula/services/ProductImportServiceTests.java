@@ -0,0 +1,77 @@
+package com.devsuperior.aula.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.aula.entities.Dto.BatchImportResultDTO;
+import com.devsuperior.aula.entities.Dto.BatchItemResultDTO.Status;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(properties = "app.import.batch-size=2")
+public class ProductImportServiceTests {
+
+	@Autowired
+	private ProductImportService service;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	private long countTotalProducts;
+	private long countTotalLinks;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		countTotalProducts = 25L;
+		countTotalLinks = 26L;
+	}
+	
+	@Test
+	public void importProductsShouldInsertValidItemsInChunksWhenNdjson() {
+		
+		InputStream body = stream("""
+				{"name":"A","price":10.0,"categories":[{"id":1}]}
+				{"name":"","price":20.0}
+				{"name":"C","price":30.0,"categories":[{"id":2},{"id":3}]}
+				{"name":"D","price":40.0,"categories":[{"id":1000}]}
+				{"name":"E","price":50.0}
+				""");
+		
+		BatchImportResultDTO result = service.importProducts(body);
+		
+		Assertions.assertEquals(5, result.getTotal());
+		Assertions.assertEquals(3, result.getCreated());
+		Assertions.assertEquals(2, result.getRejected());
+		Assertions.assertEquals(Status.REJECTED, result.getItems().get(3).getStatus());
+		Assertions.assertNotNull(result.getItems().get(0).getId());
+		Assertions.assertEquals(countTotalProducts + 3, count("tb_product"));
+		Assertions.assertEquals(countTotalLinks + 3, count("tb_product_category"));
+	}
+	
+	@Test
+	public void importProductsShouldInsertItemsWhenJsonArray() {
+		
+		BatchImportResultDTO result = service.importProducts(stream("[{\"name\":\"A\",\"price\":10.0}]"));
+		
+		Assertions.assertEquals(1, result.getCreated());
+		Assertions.assertEquals(countTotalProducts + 1, count("tb_product"));
+	}
+	
+	private long count(String table) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+	}
+	
+	private static InputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
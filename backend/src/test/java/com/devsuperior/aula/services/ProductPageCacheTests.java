@@ -0,0 +1,118 @@
+package com.devsuperior.aula.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+import com.devsuperior.aula.repositories.tests.Factory;
+import com.devsuperior.aula.services.ProductPageCache.SerializedPage;
+import com.devsuperior.aula.services.events.ChangeType;
+import com.devsuperior.aula.services.events.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ProductPageCacheTests {
+
+	private ProductPageCache cache;
+	private AtomicInteger loads;
+	private Pageable hotPage;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cache = new ProductPageCache(100, 5, Duration.ofMinutes(10));
+		ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper().findAndRegisterModules());
+		loads = new AtomicInteger();
+		hotPage = PageRequest.of(0, 12, Sort.by("name"));
+	}
+
+	private Page<?> load() {
+		loads.incrementAndGet();
+		return new PageImpl<ProductSummaryDTO>(List.of(Factory.createProductSummaryDTO()));
+	}
+
+	@Test
+	public void getShouldSerializeOnlyOnceWhenHit() {
+
+		SerializedPage first = cache.get(hotPage, this::load);
+		SerializedPage second = cache.get(hotPage, this::load);
+
+		Assertions.assertEquals(1, loads.get());
+		Assertions.assertSame(first, second);
+	}
+
+	@Test
+	public void getShouldKeepGzipInSyncWithJson() throws IOException {
+
+		SerializedPage page = cache.get(hotPage, this::load);
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page.getGzip()))) {
+			Assertions.assertArrayEquals(page.getJson(), in.readAllBytes());
+		}
+	}
+
+	@Test
+	public void onProductChangedShouldDropEntries() {
+
+		cache.get(hotPage, this::load);
+		cache.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, 1L));
+		cache.get(hotPage, this::load);
+
+		Assertions.assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void getShouldNotServePageLoadedBeforeConcurrentWrite() {
+
+		cache.get(hotPage, () -> {
+			cache.invalidateAll();
+			return load();
+		});
+		cache.get(hotPage, this::load);
+
+		Assertions.assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void acceptsShouldOnlyTakeFirstPagesOfBoundedSize() {
+
+		Assertions.assertTrue(cache.accepts(PageRequest.of(4, 20)));
+		Assertions.assertFalse(cache.accepts(PageRequest.of(5, 20)));
+		Assertions.assertFalse(cache.accepts(PageRequest.of(0, 500)));
+		Assertions.assertFalse(cache.accepts(Pageable.unpaged()));
+	}
+
+	@Test
+	public void acceptsGzipShouldHonourQualityValues() {
+
+		Assertions.assertTrue(ProductPageCache.acceptsGzip("gzip, deflate, br"));
+		Assertions.assertTrue(ProductPageCache.acceptsGzip("*"));
+		Assertions.assertFalse(ProductPageCache.acceptsGzip(null));
+		Assertions.assertFalse(ProductPageCache.acceptsGzip("br"));
+		Assertions.assertFalse(ProductPageCache.acceptsGzip("gzip;q=0, *"));
+	}
+
+	@Test
+	public void prefersJsonShouldFollowContentNegotiation() {
+
+		Assertions.assertTrue(ProductPageCache.prefersJson(null));
+		Assertions.assertTrue(ProductPageCache.prefersJson("*/*"));
+		Assertions.assertTrue(ProductPageCache.prefersJson("application/json, application/cbor"));
+		Assertions.assertTrue(ProductPageCache.prefersJson("application/cbor;q=0.5, application/json"));
+		Assertions.assertFalse(ProductPageCache.prefersJson("application/cbor"));
+		Assertions.assertFalse(ProductPageCache.prefersJson("application/x-jackson-smile, */*"));
+		Assertions.assertFalse(ProductPageCache.prefersJson("application/json;q=0.1, application/cbor"));
+	}
+}
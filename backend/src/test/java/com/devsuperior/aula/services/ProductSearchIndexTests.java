@@ -0,0 +1,63 @@
+package com.devsuperior.aula.services;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProductSearchIndexTests {
+
+	private ProductSearchIndex index;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		index = new ProductSearchIndex();
+		index.index(1L, "Smart TV", "Televisor com tela grande");
+		index.index(2L, "Livro de Eletrônicos", "Guia de eletrônica básica");
+		index.index(3L, "Controle remoto", "Compatível com smart tv e eletrônicos em geral");
+	}
+	
+	@Test
+	public void tokenizeShouldFoldAccentsAndCase() {
+		
+		List<String> terms = ProductSearchIndex.tokenize("Eletrônicos, AÇÃO-Básica!");
+		
+		Assertions.assertEquals(List.of("eletronicos", "acao", "basica"), terms);
+	}
+	
+	@Test
+	public void searchShouldMatchWithoutAccentsAndRankNameFirst() {
+		
+		List<Long> result = index.search("eletronicos");
+		
+		Assertions.assertEquals(List.of(2L, 3L), result);
+	}
+	
+	@Test
+	public void searchShouldRequireEveryTerm() {
+		
+		Assertions.assertEquals(List.of(1L, 3L), index.search("smart tv"));
+		Assertions.assertEquals(List.of(3L), index.search("smart controle"));
+		Assertions.assertTrue(index.search("smart geladeira").isEmpty());
+	}
+	
+	@Test
+	public void indexShouldReplacePreviousTermsWhenProductChanges() {
+		
+		index.index(1L, "Geladeira", null);
+		
+		Assertions.assertEquals(List.of(1L), index.search("geladeira"));
+		Assertions.assertEquals(List.of(3L), index.search("smart"));
+		Assertions.assertEquals(3, index.size());
+	}
+	
+	@Test
+	public void removeShouldDropProductFromResults() {
+		
+		index.remove(3L);
+		
+		Assertions.assertEquals(List.of(2L), index.search("eletronicos"));
+		Assertions.assertEquals(2, index.size());
+	}
+}
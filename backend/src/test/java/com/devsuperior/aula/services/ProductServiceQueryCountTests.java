@@ -0,0 +1,65 @@
+package com.devsuperior.aula.services;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.aula.entities.Dto.ProductFilterDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Transactional
+public class ProductServiceQueryCountTests {
+
+	@Autowired
+	private ProductService service;
+	
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	private CategorySnapshot categorySnapshot;
+	
+	private Statistics statistics;
+	private long expectedStatements;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		// page query + count query + one query for the category links
+		expectedStatements = 3L;
+		// the snapshot loads lazily; warm it so its query is not counted
+		categorySnapshot.contains(1L);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+	}
+	
+	@Test
+	public void findAllPagedWithCategoriesShouldRunFixedStatementsWhenSmallPage() {
+		
+		Page<ProductSummaryDTO> result = service.findAllPagedWithCategories(new ProductFilterDTO(), PageRequest.of(0, 5));
+		
+		Assertions.assertEquals(5, result.getNumberOfElements());
+		Assertions.assertFalse(result.getContent().get(0).getCategories().isEmpty());
+		Assertions.assertEquals(expectedStatements, statistics.getPrepareStatementCount());
+	}
+	
+	@Test
+	public void findAllPagedWithCategoriesShouldRunFixedStatementsWhenLargePage() {
+		
+		Page<ProductSummaryDTO> result = service.findAllPagedWithCategories(new ProductFilterDTO(), PageRequest.of(0, 20));
+		
+		Assertions.assertEquals(20, result.getNumberOfElements());
+		result.forEach(dto -> Assertions.assertFalse(dto.getCategories().isEmpty()));
+		Assertions.assertEquals(expectedStatements, statistics.getPrepareStatementCount());
+	}
+}
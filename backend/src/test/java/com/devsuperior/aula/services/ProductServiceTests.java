@@ -5,6 +5,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +16,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
@@ -27,8 +30,10 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import com.devsuperior.aula.entities.Category;
 import com.devsuperior.aula.entities.Product;
 import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductSummaryDTO;
 import com.devsuperior.aula.repositories.CategoryRepository;
 import com.devsuperior.aula.repositories.ProductRepository;
+import com.devsuperior.aula.repositories.ProductTombstoneRepository;
 import com.devsuperior.aula.repositories.tests.Factory;
 import com.devsuperior.aula.services.exceptions.DatabaseException;
 import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
@@ -47,10 +52,25 @@ public class ProductServiceTests {
 	@Mock
 	private CategoryRepository categoryRepository;
 	
+	@Mock
+	private ProductTombstoneRepository tombstoneRepository;
+	
+	@Mock
+	private CategorySnapshot categorySnapshot;
+	
+	@Mock
+	private ProductSearchIndex searchIndex;
+	
+	@Mock
+	private ApplicationEventPublisher publisher;
+	
+	@Spy
+	private ProductCache cache = new ProductCache(100, Duration.ofMinutes(1));
+	
 	private long existingId;
 	private long noExistingId;
 	private long dependentId;
-	private PageImpl<Product> page;
+	private PageImpl<ProductSummaryDTO> page;
 	private Product product;
 	private Category category;
 
@@ -61,7 +81,7 @@ public class ProductServiceTests {
 		dependentId = 3L;
 		product = Factory.createProduct();
 		category = Factory.createCategory();
-		page = new PageImpl<>(List.of(product));
+		page = new PageImpl<>(List.of(new ProductSummaryDTO(product)));
 		
 		doNothing().when(repository).deleteById(existingId);
 		doThrow(EmptyResultDataAccessException.class)
@@ -74,12 +94,16 @@ public class ProductServiceTests {
 		
 		Mockito.when(categoryRepository.getReferenceById(existingId)).thenReturn(category);
 		Mockito.when(categoryRepository.getReferenceById(noExistingId)).thenThrow(EntityNotFoundException.class);
+		Mockito.when(categorySnapshot.contains(2L)).thenReturn(true);
 		
-		Mockito.when(repository.findAll((Pageable)ArgumentMatchers.any())).thenReturn(page);
+		Mockito.when(repository.findAllSummaries((Pageable)ArgumentMatchers.any())).thenReturn(page);
 		Mockito.when(repository.save(ArgumentMatchers.any())).thenReturn(product);
 		
-		Mockito.when(repository.findById(existingId)).thenReturn(Optional.of(product));
-		Mockito.when(repository.findById(noExistingId)).thenReturn(Optional.empty());
+		Mockito.when(repository.findWithCategoriesById(existingId)).thenReturn(Optional.of(product));
+		Mockito.when(repository.findWithCategoriesById(noExistingId)).thenReturn(Optional.empty());
+		
+		Mockito.when(searchIndex.search("phone")).thenReturn(List.of(existingId));
+		Mockito.when(repository.findSummaries(List.of(existingId))).thenReturn(List.of(new ProductSummaryDTO(product)));
 		
 		Mockito.when(repository.existsById(existingId)).thenReturn(true);
 		Mockito.when(repository.existsById(noExistingId)).thenReturn(false);
@@ -108,6 +132,18 @@ public class ProductServiceTests {
 		Assertions.assertNotNull(dto);
 	}
 	
+	@Test
+	public void updateShouldResourceNotFoundExceptionWhenCategoryDoesNotExist() {
+		
+		ProductDTO dto = Factory.createProductDTO();
+		dto.getCategories().get(0).setId(noExistingId);
+		
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.update(existingId, dto);
+		});
+		verify(categoryRepository, times(0)).getReferenceById(noExistingId);
+	}
+	
 	@Test
 	public void findByIdshouldResourceNotFoundExceptionWhenIdNoExisting() {
 		
@@ -125,15 +161,35 @@ public class ProductServiceTests {
 		Assertions.assertNotNull(dto);
 	}
 	
+	@Test
+	public void findByIdShouldHitCacheWhenCalledTwice() {
+		
+		service.findById(existingId);
+		ProductDTO dto = service.findById(existingId);
+		
+		Assertions.assertNotNull(dto);
+		Assertions.assertEquals(1L, service.cacheStats().getHitCount());
+		verify(repository, times(1)).findWithCategoriesById(existingId);
+	}
+	
 	@Test
 	public void findAllPagedShouldReturnPage() {
 		
 		Pageable pageable = PageRequest.of(0, 10);
 		
-		Page<ProductDTO> result = service.findAllPaged(pageable);
+		Page<ProductSummaryDTO> result = service.findAllPaged(pageable);
 		
 		Assertions.assertNotNull(result);
-		Mockito.verify(repository, Mockito.times(1)).findAll(pageable);
+		Mockito.verify(repository, Mockito.times(1)).findAllSummaries(pageable);
+	}
+	
+	@Test
+	public void searchShouldReturnPageOfIndexMatches() {
+		
+		Page<ProductSummaryDTO> result = service.search("phone", PageRequest.of(0, 10));
+		
+		Assertions.assertEquals(1L, result.getTotalElements());
+		Assertions.assertEquals(existingId, result.getContent().get(0).getId());
 	}
 	
 	@Test
@@ -158,5 +214,6 @@ public class ProductServiceTests {
 		});
 		
 		verify(repository, times(1)).deleteById(existingId);
+		verify(tombstoneRepository, times(1)).insertForProducts(ArgumentMatchers.eq(List.of(existingId)), ArgumentMatchers.any());
 	}
 }
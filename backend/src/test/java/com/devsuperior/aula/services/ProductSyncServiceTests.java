@@ -0,0 +1,102 @@
+package com.devsuperior.aula.services;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devsuperior.aula.entities.Dto.ProductChangesDTO;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.ProductTombstoneDTO;
+import com.devsuperior.aula.services.exceptions.ChangesExpiredException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest(properties = "app.sync.safety-lag=0s")
+@Transactional
+public class ProductSyncServiceTests {
+
+	@Autowired
+	private ProductSyncService syncService;
+	
+	@Autowired
+	private ProductService productService;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	private Instant since;
+	private long countTotalProducts;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		since = Instant.now();
+		countTotalProducts = 25L;
+		Thread.sleep(2);
+	}
+	
+	@Test
+	public void findChangesShouldReturnUpdatesAndDeletesAfterSince() {
+		
+		ProductDTO dto = productService.findById(3L);
+		productService.update(3L, dto, null);
+		productService.delete(4L);
+		productService.deleteAll(List.of(5L, 6L));
+		
+		ProductChangesDTO changes = syncService.findChanges(since, null, 100);
+		
+		Assertions.assertEquals(List.of(3L), changes.getUpdated().stream().map(ProductDTO::getId).toList());
+		Assertions.assertFalse(changes.getUpdated().get(0).getCategories().isEmpty());
+		Assertions.assertEquals(List.of(4L, 5L, 6L), changes.getDeleted().stream().map(ProductTombstoneDTO::getId).toList());
+		Assertions.assertTrue(changes.isLast());
+	}
+	
+	@Test
+	public void findChangesShouldPageWithCursorWithoutSkippingTies() {
+		
+		productService.deleteAll(List.of(7L, 8L, 9L));
+		
+		ProductChangesDTO first = syncService.findChanges(since, null, 2);
+		ProductChangesDTO second = syncService.findChanges(null, first.getNextCursor(), 2);
+		
+		Assertions.assertEquals(List.of(7L, 8L), first.getDeleted().stream().map(ProductTombstoneDTO::getId).toList());
+		Assertions.assertEquals(List.of(9L), second.getDeleted().stream().map(ProductTombstoneDTO::getId).toList());
+		Assertions.assertTrue(second.isLast());
+	}
+	
+	@Test
+	public void findChangesShouldReturnWholeCatalogWithoutSince() {
+		
+		ProductChangesDTO changes = syncService.findChanges(null, null, 1000);
+		
+		Assertions.assertEquals(countTotalProducts, changes.getUpdated().size());
+	}
+	
+	@Test
+	public void findChangesShouldPageFullSyncThroughProductsOlderThanRetention() {
+		
+		entityManager.createNativeQuery("UPDATE tb_product SET updated_at = :old")
+				.setParameter("old", Instant.parse("2000-01-01T00:00:00Z"))
+				.executeUpdate();
+		
+		ProductChangesDTO first = syncService.findChanges(null, null, 10);
+		ProductChangesDTO second = syncService.findChanges(null, first.getNextCursor(), 10);
+		
+		Assertions.assertEquals(10, first.getUpdated().size());
+		Assertions.assertEquals(10, second.getUpdated().size());
+	}
+	
+	@Test
+	public void findChangesShouldThrowChangesExpiredWhenSinceBeforeRetention() {
+		
+		Assertions.assertThrows(ChangesExpiredException.class, () -> {
+			syncService.findChanges(Instant.parse("2000-01-01T00:00:00Z"), null, 100);
+		});
+	}
+}
@@ -0,0 +1,107 @@
+package com.devsuperior.aula.services;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.aula.entities.Product;
+import com.devsuperior.aula.entities.Dto.CategoryDTO;
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.repositories.ProductRepository;
+import com.devsuperior.aula.services.exceptions.PreconditionFailedException;
+import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
+
+@SpringBootTest
+public class ProductVersionTests {
+
+	@Autowired
+	private ProductService service;
+	
+	@Autowired
+	private ProductRepository repository;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private long existingId;
+	private long nonExistingId;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 1L;
+		nonExistingId = 1000L;
+	}
+	
+	@Test
+	public void findVersionShouldChangeWhenOnlyCategoriesChange() throws Exception {
+		
+		ProductDTO original = service.findById(existingId);
+		ResourceVersion before = service.findVersion(existingId);
+		
+		ProductDTO dto = service.findById(existingId);
+		dto.getCategories().clear();
+		dto.getCategories().add(new CategoryDTO(3L, null));
+		Thread.sleep(5);
+		try {
+			service.update(existingId, dto);
+			
+			Assertions.assertNotEquals(before.getEtag(), service.findVersion(existingId).getEtag());
+			Assertions.assertEquals(List.of(3L), service.findById(existingId).getCategories().stream().map(CategoryDTO::getId).toList());
+		}
+		finally {
+			service.update(existingId, original);
+		}
+	}
+	
+	@Test
+	public void updateShouldThrowPreconditionFailedExceptionWhenExpectedVersionIsStale() {
+		
+		ProductDTO original = service.findById(existingId);
+		Long current = ResourceVersion.expectedVersion(service.findVersion(existingId).getEtag());
+		try {
+			service.update(existingId, original, current);
+			
+			Assertions.assertThrows(PreconditionFailedException.class, () -> service.update(existingId, original, current));
+		}
+		finally {
+			service.update(existingId, original);
+		}
+	}
+	
+	@Test
+	public void updateShouldThrowOptimisticLockingFailureWhenConcurrentWriterCommitsFirst() {
+		
+		ProductDTO original = service.findById(existingId);
+		ProductDTO other = service.findById(existingId);
+		other.setName("Written by another worker");
+		TransactionTemplate outer = new TransactionTemplate(transactionManager);
+		TransactionTemplate inner = new TransactionTemplate(transactionManager);
+		inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		try {
+			Assertions.assertThrows(OptimisticLockingFailureException.class, () -> outer.executeWithoutResult(status -> {
+				Product entity = repository.findById(existingId).orElseThrow();
+				entity.setName("Lost update");
+				inner.executeWithoutResult(s -> service.update(existingId, other));
+			}));
+			
+			Assertions.assertEquals("Written by another worker", service.findById(existingId).getName());
+		}
+		finally {
+			service.update(existingId, original);
+		}
+	}
+	
+	@Test
+	public void findVersionShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
+		
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> service.findVersion(nonExistingId));
+	}
+}
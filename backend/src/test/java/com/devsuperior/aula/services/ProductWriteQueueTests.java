@@ -0,0 +1,134 @@
+package com.devsuperior.aula.services;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.devsuperior.aula.entities.Dto.ProductDTO;
+import com.devsuperior.aula.entities.Dto.WriteStatusDTO;
+import com.devsuperior.aula.entities.Dto.WriteStatusDTO.Status;
+import com.devsuperior.aula.repositories.tests.Factory;
+import com.devsuperior.aula.services.exceptions.PreconditionFailedException;
+import com.devsuperior.aula.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.aula.services.exceptions.TooManyRequestsException;
+
+public class ProductWriteQueueTests {
+
+	private ProductWriteQueue queue;
+	private ProductService service;
+	private PlatformTransactionManager transactionManager;
+	private long existingId;
+	private long nonExistingId;
+	private long currentVersion;
+	private long staleVersion;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 1L;
+		nonExistingId = 1000L;
+		currentVersion = 5L;
+		staleVersion = 4L;
+		service = Mockito.mock(ProductService.class);
+		transactionManager = Mockito.mock(PlatformTransactionManager.class);
+		queue = new ProductWriteQueue(transactionManager, 1, 2, 100, Duration.ofMinutes(10));
+		ReflectionTestUtils.setField(queue, "service", service);
+
+		Mockito.when(service.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.any()))
+				.thenAnswer(x -> x.getArgument(1));
+		Mockito.when(service.update(ArgumentMatchers.eq(nonExistingId), ArgumentMatchers.any(), ArgumentMatchers.any()))
+				.thenThrow(new ResourceNotFoundException("Id not found " + nonExistingId));
+		Mockito.when(service.update(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(), ArgumentMatchers.eq(staleVersion)))
+				.thenThrow(new PreconditionFailedException("Expected version " + staleVersion + " but was " + currentVersion));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		queue.stop();
+	}
+
+	private WriteStatusDTO await(String trackingId) throws InterruptedException {
+		for (int i = 0; i < 500; i++) {
+			WriteStatusDTO status = queue.findStatus(trackingId);
+			if (status.getStatus() != Status.QUEUED) {
+				return status;
+			}
+			Thread.sleep(10);
+		}
+		return Assertions.fail("Write " + trackingId + " was not flushed");
+	}
+
+	@Test
+	public void submitUpdateShouldCoalesceQueuedWritesOfSameProduct() throws InterruptedException {
+		ProductDTO first = Factory.createProductDTO();
+		ProductDTO second = Factory.createProductDTO();
+		second.setName("Second");
+
+		WriteStatusDTO a = queue.submitUpdate(existingId, first, null);
+		WriteStatusDTO b = queue.submitUpdate(existingId, second, null);
+		Assertions.assertEquals(1, queue.pending());
+
+		queue.start();
+
+		Assertions.assertEquals(Status.COMPLETED, await(a.getTrackingId()).getStatus());
+		Assertions.assertEquals(Status.COMPLETED, await(b.getTrackingId()).getStatus());
+		Mockito.verify(service, Mockito.times(1)).update(existingId, second, null);
+		Mockito.verify(service, Mockito.never()).update(existingId, first, null);
+	}
+
+	@Test
+	public void submitUpdateShouldNotCoalesceWriteWithStaleExpectedVersion() throws InterruptedException {
+		ProductDTO first = Factory.createProductDTO();
+		ProductDTO second = Factory.createProductDTO();
+		second.setName("Second");
+
+		WriteStatusDTO a = queue.submitUpdate(existingId, first, currentVersion);
+		WriteStatusDTO b = queue.submitUpdate(existingId, second, staleVersion);
+		Assertions.assertEquals(2, queue.pending());
+
+		queue.start();
+
+		Assertions.assertEquals(Status.COMPLETED, await(a.getTrackingId()).getStatus());
+		WriteStatusDTO failed = await(b.getTrackingId());
+		Assertions.assertEquals(Status.FAILED, failed.getStatus());
+		Assertions.assertEquals("Expected version " + staleVersion + " but was " + currentVersion, failed.getMessage());
+		Mockito.verify(service, Mockito.times(1)).update(existingId, first, currentVersion);
+	}
+
+	@Test
+	public void flushShouldIsolateFailedWriteFromRestOfBatch() throws InterruptedException {
+
+		WriteStatusDTO ok = queue.submitUpdate(existingId, Factory.createProductDTO(), null);
+		WriteStatusDTO bad = queue.submitUpdate(nonExistingId, Factory.createProductDTO(), null);
+
+		queue.start();
+
+		Assertions.assertEquals(Status.COMPLETED, await(ok.getTrackingId()).getStatus());
+		WriteStatusDTO failed = await(bad.getTrackingId());
+		Assertions.assertEquals(Status.FAILED, failed.getStatus());
+		Assertions.assertEquals("Id not found " + nonExistingId, failed.getMessage());
+	}
+
+	@Test
+	public void submitShouldThrowTooManyRequestsWhenQueueIsFull() {
+
+		queue.submitInsert(Factory.createProductDTO());
+		queue.submitInsert(Factory.createProductDTO());
+
+		Assertions.assertThrows(TooManyRequestsException.class, () -> queue.submitInsert(Factory.createProductDTO()));
+		queue.start();
+	}
+
+	@Test
+	public void findStatusShouldThrowResourceNotFoundWhenTrackingIdIsUnknown() {
+		queue.start();
+
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> queue.findStatus("unknown"));
+	}
+}
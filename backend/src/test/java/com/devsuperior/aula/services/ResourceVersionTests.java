@@ -0,0 +1,30 @@
+package com.devsuperior.aula.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.aula.services.exceptions.PreconditionFailedException;
+
+public class ResourceVersionTests {
+
+	@Test
+	public void expectedVersionShouldReadLeadingComponentOfTag() {
+		
+		Assertions.assertEquals(4L, ResourceVersion.expectedVersion("W/\"4-3-1594723200000\""));
+		Assertions.assertEquals(2L, ResourceVersion.expectedVersion("\"2\""));
+	}
+	
+	@Test
+	public void expectedVersionShouldReturnNullWhenAnyVersionIsAccepted() {
+		
+		Assertions.assertNull(ResourceVersion.expectedVersion(null));
+		Assertions.assertNull(ResourceVersion.expectedVersion("*"));
+	}
+	
+	@Test
+	public void expectedVersionShouldThrowPreconditionFailedExceptionWhenTagIsUnknown() {
+		
+		Assertions.assertThrows(PreconditionFailedException.class, () -> ResourceVersion.expectedVersion("W/\"abc\""));
+		Assertions.assertThrows(PreconditionFailedException.class, () -> ResourceVersion.expectedVersion("\"1\", \"2\""));
+	}
+}